@@ -0,0 +1,189 @@
+package entregable2;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Escritura asíncrona de los mensajes de {@link GameLogger}. Los hilos del juego
+ * encolan el mensaje con su hora en un buffer circular acotado sin locks y un único
+ * hilo escritor los vacía por lotes, haciendo una sola escritura y un solo flush
+ * por lote.
+ *
+ * El buffer usa una secuencia por posición: un productor reserva una posición con
+ * CAS sobre la cola y la publica escribiendo su secuencia; el escritor la libera
+ * para la siguiente vuelta al consumirla.
+ */
+class AsyncLogWriter {
+    // Con SAMPLE se espera lugar para uno de cada SAMPLE_RATE mensajes desbordados
+    static final int SAMPLE_RATE = 16;
+
+    /** Destino de los lotes; se llama siempre desde el hilo escritor. */
+    interface BatchSink {
+        void writeBatch(long[] times, GameLogger.Kind[] kinds, String[] messages, int count, long droppedSinceLastBatch);
+    }
+
+    private final int mask;
+    private final long[] times;
+    private final GameLogger.Kind[] kinds;
+    private final String[] messages;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Solo lo modifica el hilo escritor
+    private long head;
+    private long reportedDropped;
+    // Mensajes ya entregados al destino; lo publica el escritor después de cada lote
+    private volatile long written;
+    private final long[] batchTimes;
+    private final GameLogger.Kind[] batchKinds;
+    private final String[] batchMessages;
+    private final GameLogger.OverflowPolicy policy;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final BatchSink sink;
+    private final Thread writerThread;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+
+    AsyncLogWriter(int capacity, GameLogger.OverflowPolicy policy, BatchSink sink) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity));
+        if (slots < capacity) slots <<= 1;
+        this.mask = slots - 1;
+        this.times = new long[slots];
+        this.kinds = new GameLogger.Kind[slots];
+        this.messages = new String[slots];
+        this.sequences = new AtomicLongArray(slots);
+        this.batchTimes = new long[slots];
+        this.batchKinds = new GameLogger.Kind[slots];
+        this.batchMessages = new String[slots];
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, i);
+        }
+        this.policy = policy;
+        this.sink = sink;
+        this.writerThread = new Thread(this::drainLoop, "GameLogger-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Encola un mensaje según la política de desborde.
+     * @return false si el escritor ya está cerrado y el mensaje no se encoló
+     */
+    boolean offer(long time, GameLogger.Kind kind, String message) {
+        if (closed) return false;
+        if (tryOffer(time, kind, message)) return true;
+        boolean wait = policy == GameLogger.OverflowPolicy.BLOCK
+            || (policy == GameLogger.OverflowPolicy.SAMPLE && overflowed.incrementAndGet() % SAMPLE_RATE == 0);
+        if (!wait) {
+            dropped.incrementAndGet();
+            return true;
+        }
+        while (!tryOffer(time, kind, message)) {
+            if (closed) return false;
+            wakeWriter();
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+        return true;
+    }
+
+    private boolean tryOffer(long time, GameLogger.Kind kind, String message) {
+        while (true) {
+            long pos = tail.get();
+            int slot = (int) (pos & mask);
+            long diff = sequences.get(slot) - pos;
+            if (diff < 0) return false; // lleno: el escritor todavía no liberó la posición
+            if (diff == 0 && tail.compareAndSet(pos, pos + 1)) {
+                times[slot] = time;
+                kinds[slot] = kind;
+                messages[slot] = message;
+                sequences.set(slot, pos + 1);
+                if (writerParked) wakeWriter();
+                return true;
+            }
+        }
+    }
+
+    private void wakeWriter() {
+        LockSupport.unpark(writerThread);
+    }
+
+    private void drainLoop() {
+        while (true) {
+            if (drainBatch()) continue;
+            if (closed && tail.get() == head) return;
+            writerParked = true;
+            // Volver a mirar después de avisar que se va a dormir, para no perder un aviso
+            if (sequences.get((int) (head & mask)) != head + 1 && !closed) {
+                LockSupport.parkNanos(10_000_000L);
+            }
+            writerParked = false;
+        }
+    }
+
+    /**
+     * Consume todos los mensajes publicados y los entrega en un lote.
+     * @return true si había algo para escribir
+     */
+    private boolean drainBatch() {
+        int count = 0;
+        while (count < batchMessages.length) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) break;
+            batchTimes[count] = times[slot];
+            batchKinds[count] = kinds[slot];
+            batchMessages[count] = messages[slot];
+            messages[slot] = null;
+            sequences.set(slot, head + mask + 1);
+            head++;
+            count++;
+        }
+        long droppedNow = dropped.get() - reportedDropped;
+        if (count == 0 && droppedNow == 0) return false;
+        reportedDropped += droppedNow;
+        sink.writeBatch(batchTimes, batchKinds, batchMessages, count, droppedNow);
+        Arrays.fill(batchMessages, 0, count, null);
+        written = head;
+        return true;
+    }
+
+    /**
+     * Deja de aceptar mensajes y espera a que el escritor vacíe el buffer.
+     * Un productor que había reservado posición antes del cierre alcanza a publicarla.
+     */
+    void close() {
+        closed = true;
+        wakeWriter();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // Lo que un productor haya publicado justo después de la última pasada del escritor
+        drainBatch();
+    }
+
+    /**
+     * Espera a que el escritor haya entregado al destino todo lo encolado hasta este
+     * momento, o a que el escritor termine.
+     */
+    void awaitWritten() {
+        long target = tail.get();
+        while (written < target && writerThread.isAlive()) {
+            wakeWriter();
+            LockSupport.parkNanos(100_000L);
+        }
+    }
+
+    /** Total de mensajes descartados por desborde. */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    int getCapacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,321 @@
+package entregable2;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mediciones de rendimiento de los componentes del juego.
+ *
+ * Uso: {@code java entregable2.Benchmarks <escenario>}
+ * <ul>
+ *   <li>{@code footprint [tamaño]}: memoria de las casillas con almacenamiento OBJECTS vs PACKED
+ *       y del índice de casillas libres que el tablero agrega a ambos</li>
+ *   <li>{@code contention [lectores] [jugadores] [segundos]}: consultas y movimientos por
+ *       segundo en cada modo de sincronización del tablero</li>
+ *   <li>{@code timestamps [hilos] [segundos]}: costo por línea de formatear la hora en
+ *       cada llamada vs el prefijo cacheado de {@link GameLogger}</li>
+ *   <li>{@code render [tamaño] [cambios]}: tiempo y memoria por cuadro de {@link GameBoardPanel}
+ *       dibujando el tablero completo vs solo las casillas que cambiaron</li>
+ *   <li>{@code entidades [partidas] [segundos]}: muchas partidas en tiempo real a la vez
+ *       sobre hilos de plataforma vs hilos virtuales: hilos del sistema, memoria y
+ *       cambios de casillas por segundo</li>
+ * </ul>
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws Exception {
+        String scenario = args.length > 0 ? args[0] : "footprint";
+        switch (scenario) {
+            case "footprint":
+                footprint(args.length > 1 ? Integer.parseInt(args[1]) : 2000);
+                break;
+            case "contention":
+                contention(args.length > 1 ? Integer.parseInt(args[1]) : 8,
+                           args.length > 2 ? Integer.parseInt(args[2]) : 4,
+                           args.length > 3 ? Integer.parseInt(args[3]) : 3);
+                break;
+            case "timestamps":
+                timestamps(args.length > 1 ? Integer.parseInt(args[1]) : 1,
+                           args.length > 2 ? Integer.parseInt(args[2]) : 2);
+                break;
+            case "render":
+                render(args.length > 1 ? Integer.parseInt(args[1]) : 200,
+                       args.length > 2 ? Integer.parseInt(args[2]) : 50);
+                break;
+            case "entidades":
+                entities(args.length > 1 ? Integer.parseInt(args[1]) : 1000,
+                         args.length > 2 ? Integer.parseInt(args[2]) : 10);
+                break;
+            default:
+                System.out.println("Escenario desconocido: " + scenario);
+        }
+    }
+
+    /**
+     * Compara la memoria estimada y la medida en heap de ambos almacenamientos.
+     */
+    private static void footprint(int maxSize) {
+        System.out.printf("%8s | %14s %14s | %14s %14s | %14s%n",
+            "tamaño", "OBJECTS est.", "OBJECTS medido", "PACKED est.", "PACKED medido", "índice libres");
+        for (int size = 100; size <= maxSize; size *= 2) {
+            long objectsMeasured = measureHeap(size, GameBoard.StorageMode.OBJECTS);
+            long packedMeasured = measureHeap(size, GameBoard.StorageMode.PACKED);
+            System.out.printf("%8s | %14s %14s | %14s %14s | %14s%n",
+                size + "x" + size,
+                mb(ObjectCellStore.estimateFootprint(size)), mb(objectsMeasured),
+                mb(PackedCellStore.estimateFootprint((long) size * size)), mb(packedMeasured),
+                mb(FreeCellIndex.estimateFootprint((long) size * size)));
+        }
+    }
+
+    private static long measureHeap(int size, GameBoard.StorageMode mode) {
+        long before = usedHeap();
+        CellStore store = mode == GameBoard.StorageMode.OBJECTS ? new ObjectCellStore(size) : new PackedCellStore(size);
+        long after = usedHeap();
+        // Mantener vivo el almacenamiento hasta después de medir
+        if (store.footprintBytes() <= 0) throw new IllegalStateException();
+        return after - before;
+    }
+
+    /**
+     * Lectores que consultan casillas al azar (isCellFree + hasTrap) contra jugadores
+     * que confirman tiradas como Player.makeMove (commitMove) y un robot que repone
+     * monedas y vidas. Sin esperas entre operaciones.
+     */
+    private static void contention(int readers, int writers, int seconds) throws InterruptedException {
+        int size = 64;
+        System.out.printf("Tablero %dx%d, %d lectores, %d jugadores, %d s por modo%n",
+            size, size, readers, writers, seconds);
+        System.out.printf("%-11s | %16s | %16s%n", "modo", "consultas/s", "pasos/s");
+        for (GameBoard.LockingMode mode : GameBoard.LockingMode.values()) {
+            GameBoard board = new GameBoard(size, size, size * 4, size * 4, GameBoard.StorageMode.PACKED, mode);
+            AtomicBoolean running = new AtomicBoolean(true);
+            LongAdder reads = new LongAdder();
+            LongAdder steps = new LongAdder();
+            List<Thread> threads = new ArrayList<>();
+            // Solo para crear los jugadores: los hilos los maneja el benchmark
+            GameContext context = GameContext.shared(board, GameLogger.silent(), null, null, 0);
+
+            for (int r = 0; r < readers; r++) {
+                threads.add(new Thread(() -> {
+                    Random random = new Random();
+                    while (running.get()) {
+                        int x = random.nextInt(size);
+                        int y = random.nextInt(size);
+                        if (board.isCellFree(x, y)) board.hasTrap(x, y);
+                        reads.increment();
+                    }
+                }));
+            }
+            for (int w = 0; w < writers; w++) {
+                Player player = new Player(w + 1, context, 3);
+                int startX = w * size / writers;
+                board.occupyCell(startX, startX, player);
+                threads.add(new Thread(() -> {
+                    Random random = new Random();
+                    while (running.get()) {
+                        int dx = random.nextInt(3) - 1;
+                        int dy = random.nextInt(3) - 1;
+                        MoveResult result = board.commitMove(player, startX, startX, dx, dy, random.nextInt(6) + 1, 3);
+                        steps.add(result.getStepsTaken());
+                    }
+                }));
+            }
+            threads.add(new Thread(() -> {
+                Random random = new Random();
+                while (running.get()) {
+                    board.placeCoinsAtRandom(random, 1);
+                    board.placeLifeAtRandom(random);
+                }
+            }));
+
+            for (Thread t : threads) t.start();
+            Thread.sleep(seconds * 1000L);
+            running.set(false);
+            for (Thread t : threads) t.join();
+            System.out.printf("%-11s | %16d | %16d%n", mode, reads.sum() / seconds, steps.sum() / seconds);
+        }
+    }
+
+    /**
+     * Arma líneas de log como {@code GameLogger}: formateando la hora en cada llamada
+     * ({@code LocalDateTime.now().format}) o con el prefijo cacheado por segundo.
+     * Reporta nanosegundos y bytes reservados por línea.
+     */
+    private static void timestamps(int threads, int seconds) throws InterruptedException {
+        System.out.printf("%d hilos, %d s por variante%n", threads, seconds);
+        System.out.printf("%-10s | %12s | %12s%n", "variante", "ns/línea", "bytes/línea");
+        String message = EventType.GAME_STARTED.format(0, 0, 0, 0, 0, 0);
+        for (int round = 0; round < 2; round++) {
+            // La primera vuelta solo calienta el JIT
+            boolean report = round == 1;
+            for (boolean cached : new boolean[] {false, true}) {
+                AtomicBoolean running = new AtomicBoolean(true);
+                LongAdder lines = new LongAdder();
+                LongAdder allocated = new LongAdder();
+                LongAdder chars = new LongAdder();
+                List<Thread> workers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    workers.add(new Thread(() -> {
+                        long before = allocatedBytes();
+                        long count = 0;
+                        long length = 0;
+                        while (running.get()) {
+                            String line = cached
+                                ? GameLogger.formatLine(TimestampCache.currentTimeMillis(), message)
+                                : "[" + LocalDateTime.now().format(GameLogger.TIMESTAMP_FORMAT) + "] " + message;
+                            length += line.length();
+                            count++;
+                        }
+                        allocated.add(allocatedBytes() - before);
+                        lines.add(count);
+                        chars.add(length);
+                    }));
+                }
+                long start = System.nanoTime();
+                for (Thread t : workers) t.start();
+                Thread.sleep(seconds * 1000L);
+                running.set(false);
+                for (Thread t : workers) t.join();
+                long elapsed = System.nanoTime() - start;
+                if (report && chars.sum() > 0) {
+                    long total = Math.max(1, lines.sum());
+                    System.out.printf("%-10s | %12.1f | %12.1f%n", cached ? "cacheado" : "por línea",
+                        (double) elapsed * threads / total, (double) allocated.sum() / total);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pinta el panel del tablero en una imagen, como lo haría Swing, después de
+     * {@code changes} cambios de casillas por cuadro (monedas, vidas y movimientos).
+     * Compara el dibujo completo en cada cuadro con el incremental.
+     */
+    private static void render(int size, int changes) {
+        int cellSize = 10;
+        int pixels = size * cellSize + 1;
+        System.out.printf("Tablero %dx%d, casillas de %d px, %d cambios por cuadro%n", size, size, cellSize, changes);
+        System.out.printf("%-12s | %12s | %14s%n", "variante", "ms/cuadro", "bytes/cuadro");
+        GameBoard board = new GameBoard(size, size * 4, size * 4, size * 4, GameBoard.StorageMode.PACKED);
+        GameContext context = GameContext.shared(board, GameLogger.silent(), null, null, 0);
+        Player player = new Player(1, context, 3);
+        board.occupyCell(0, 0, player);
+        GameBoardPanel panel = new GameBoardPanel(board, new ArrayList<>());
+        panel.setSize(pixels, pixels);
+        java.awt.image.BufferedImage screen = new java.awt.image.BufferedImage(pixels, pixels,
+            java.awt.image.BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D g = screen.createGraphics();
+        Random random = new Random(1);
+        int frames = 200;
+        for (int round = 0; round < 2; round++) {
+            // La primera vuelta solo calienta el JIT
+            boolean report = round == 1;
+            for (boolean incremental : new boolean[] {false, true}) {
+                long elapsed = 0;
+                long allocated = 0;
+                for (int f = 0; f < frames; f++) {
+                    for (int c = 0; c < changes; c += 3) {
+                        board.placeCoinsAtRandom(random, 1 + random.nextInt(5));
+                        board.placeLifeAtRandom(random);
+                        board.commitMove(player, player.getX(), player.getY(),
+                            random.nextInt(3) - 1, random.nextInt(3) - 1, 1, 3);
+                    }
+                    if (!incremental) panel.invalidateFrame();
+                    long before = allocatedBytes();
+                    long start = System.nanoTime();
+                    panel.paint(g);
+                    elapsed += System.nanoTime() - start;
+                    allocated += allocatedBytes() - before;
+                }
+                if (report) {
+                    System.out.printf("%-12s | %12.3f | %14d%n", incremental ? "incremental" : "completo",
+                        elapsed / 1e6 / frames, allocated / frames);
+                }
+            }
+        }
+        g.dispose();
+    }
+
+    /**
+     * Arranca {@code games} partidas en tiempo real (3 jugadores y 3 robots cada una)
+     * sobre un único executor compartido, como en {@link GameContext#create}, y las deja
+     * correr {@code seconds} segundos. Los cambios de casillas salen del flujo de
+     * cambios de cada tablero.
+     */
+    private static void entities(int games, int seconds) throws InterruptedException {
+        System.out.printf("%d partidas, %d entidades, %d s por modo%n", games, games * 6, seconds);
+        System.out.printf("%-17s | %14s | %12s | %16s%n", "modo", "hilos vivos", "heap", "cambios/s");
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baseThreads = threads.getThreadCount();
+        for (ConcurrentGame.ExecutionMode mode : new ConcurrentGame.ExecutionMode[] {
+                ConcurrentGame.ExecutionMode.PLATFORM_THREADS, ConcurrentGame.ExecutionMode.VIRTUAL_THREADS}) {
+            java.util.concurrent.ExecutorService executor = mode == ConcurrentGame.ExecutionMode.VIRTUAL_THREADS
+                ? java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor()
+                : java.util.concurrent.Executors.newCachedThreadPool();
+            java.util.concurrent.ScheduledExecutorService scheduler = java.util.concurrent.Executors.newScheduledThreadPool(2);
+            long heapBefore = usedHeap();
+            List<BoardChangeFeed> feeds = new ArrayList<>();
+            for (int g = 0; g < games; g++) {
+                GameSettings settings = GameSettings.forDifficulty(2, 10, 3, seconds + 60);
+                GameBoard board = new GameBoard(10, settings.getMaxTrampas(), settings.getMaxVidas(),
+                    settings.getMaxMonedas());
+                feeds.add(board.enableChangeFeed(64));
+                ConcurrentGame game = new ConcurrentGame(settings,
+                    GameContext.shared(board, GameLogger.silent(), executor, scheduler, g));
+                game.setConsoleDisplay(false);
+                for (int p = 0; p < 3; p++) game.addPlayer();
+            }
+            long start = 0;
+            for (BoardChangeFeed feed : feeds) start += feed.getLastSequence();
+            Thread.sleep(seconds * 1000L);
+            long end = 0;
+            for (BoardChangeFeed feed : feeds) end += feed.getLastSequence();
+            // Solo cuenta hilos de plataforma: los virtuales no son hilos del sistema
+            int live = threads.getThreadCount();
+            long heap = usedHeap() - heapBefore;
+            System.out.printf("%-17s | %14d | %12s | %16d%n", mode, live, mb(heap),
+                (end - start) / seconds);
+            // Interrumpir las esperas; los robots avisan la interrupción por consola
+            java.io.PrintStream out = System.out;
+            System.setOut(new java.io.PrintStream(java.io.OutputStream.nullOutputStream()));
+            try {
+                executor.shutdownNow();
+                scheduler.shutdownNow();
+                executor.awaitTermination(30, java.util.concurrent.TimeUnit.SECONDS);
+            } finally {
+                System.setOut(out);
+            }
+            // Que los hilos de este modo no se cuenten en el siguiente
+            for (int wait = 0; wait < 300 && threads.getThreadCount() > baseThreads + 16; wait++) {
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    /** Bytes reservados por el hilo actual, o 0 si la JVM no lo informa. */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return 0;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
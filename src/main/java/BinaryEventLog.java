@@ -0,0 +1,158 @@
+package entregable2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro binario de eventos: una cabecera de 8 bytes y después registros de ancho
+ * fijo, uno por evento, que se acumulan en un buffer y se escriben con un
+ * {@link FileChannel} cuando el buffer se llena o al cerrar.
+ *
+ * Formato (little endian):
+ * <pre>
+ * cabecera: int MAGIC, short VERSION, short RECORD_SIZE
+ * registro: long hora (ms epoch), short tipo, short aux, int entidad, int x, int y, int cantidad, int extra
+ * </pre>
+ * {@link EventLogConverter} lo vuelve a convertir al formato de texto.
+ */
+public final class BinaryEventLog implements AutoCloseable {
+    static final int MAGIC = 0x474C4F47; // "GLOG"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 32;
+    private static final int BUFFER_RECORDS = 2048;
+
+    /** Receptor de registros al leer un archivo; recibe solo primitivos. */
+    public interface RecordListener {
+        void onRecord(long time, EventType type, int entity, int x, int y, int amount, int extra, int aux);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long records;
+
+    public BinaryEventLog(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFER_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE);
+    }
+
+    public void write(long time, EventType type, int entity, int x, int y, int amount, int extra, int aux) {
+        lock.lock();
+        try {
+            if (buffer.remaining() < RECORD_SIZE) {
+                flushBuffer();
+            }
+            buffer.putLong(time)
+                .putShort((short) type.getCode())
+                .putShort((short) aux)
+                .putInt(entity)
+                .putInt(x)
+                .putInt(y)
+                .putInt(amount)
+                .putInt(extra);
+            records++;
+        } catch (IOException e) {
+            System.err.println("Error al escribir el registro binario: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Escribe en el archivo lo que quedó en el buffer. */
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            flushBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Escribe lo que quedó en el buffer y espera a que llegue al disco. */
+    public void force() throws IOException {
+        lock.lock();
+        try {
+            if (!channel.isOpen()) return;
+            flushBuffer();
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (!channel.isOpen()) return;
+            flushBuffer();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recorre todos los registros de un archivo en orden.
+     * @return la cantidad de registros leídos
+     */
+    public static long read(Path file, RecordListener listener) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFER_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+            buf.limit(HEADER_SIZE);
+            while (buf.hasRemaining() && in.read(buf) >= 0) { }
+            buf.flip();
+            if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC) {
+                throw new IOException("No es un registro binario de eventos: " + file);
+            }
+            short version = buf.getShort();
+            short recordSize = buf.getShort();
+            if (version != VERSION || recordSize != RECORD_SIZE) {
+                throw new IOException("Versión de registro no soportada: " + version);
+            }
+            long count = 0;
+            buf.clear();
+            while (in.read(buf) >= 0 || buf.position() > 0) {
+                buf.flip();
+                while (buf.remaining() >= RECORD_SIZE) {
+                    long time = buf.getLong();
+                    EventType type = EventType.fromCode(buf.getShort());
+                    int aux = buf.getShort();
+                    int entity = buf.getInt();
+                    int x = buf.getInt();
+                    int y = buf.getInt();
+                    int amount = buf.getInt();
+                    int extra = buf.getInt();
+                    if (type != null) {
+                        listener.onRecord(time, type, entity, x, y, amount, extra, aux);
+                    }
+                    count++;
+                }
+                boolean partial = buf.hasRemaining();
+                buf.compact();
+                if (partial && in.position() == in.size()) break; // registro truncado al final
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package entregable2;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Flujo de cambios de casillas publicado por {@link GameBoard} cada vez que se
+ * confirma una modificación. Cada cambio lleva un número de secuencia creciente,
+ * el índice de la casilla y su nuevo estado empaquetado (ver {@link CellState}).
+ *
+ * Los cambios se guardan en un buffer circular preasignado, así publicar no crea
+ * objetos. Los lectores consultan con {@link #poll} a partir de la última secuencia
+ * que vieron; si quedaron más atrás que la capacidad del buffer se les avisa del
+ * hueco y deben volver a leer el tablero completo (por ejemplo con una instantánea).
+ */
+public final class BoardChangeFeed {
+    /**
+     * Receptor de cambios. Recibe solo primitivos para no crear objetos por cambio.
+     */
+    public interface Listener {
+        void onChange(long sequence, int x, int y, long state);
+
+        /** Se perdieron los cambios entre {@code fromSequence} y {@code toSequence} inclusive. */
+        default void onGap(long fromSequence, long toSequence) {
+        }
+    }
+
+    private final int boardSize;
+    private final int mask;
+    private final int[] cells;
+    private final long[] states;
+    // Secuencia publicada en cada posición; -1 mientras se escribe
+    private final AtomicLongArray published;
+    private final AtomicLong lastClaimed = new AtomicLong();
+
+    BoardChangeFeed(int boardSize, int capacity) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity));
+        if (slots < capacity) slots <<= 1;
+        this.boardSize = boardSize;
+        this.mask = slots - 1;
+        this.cells = new int[slots];
+        this.states = new long[slots];
+        this.published = new AtomicLongArray(slots);
+    }
+
+    /**
+     * Reserva la próxima secuencia. El tablero lee el estado de la casilla después de
+     * reservar, así el cambio de mayor secuencia de una casilla siempre trae su último estado.
+     */
+    long claim() {
+        return lastClaimed.incrementAndGet();
+    }
+
+    /**
+     * Escritura de seqlock: invalida la posición, escribe el contenido y lo publica.
+     * La barrera impide que el contenido se escriba antes de la invalidación; si no,
+     * un lector podría ver la secuencia vieja con datos nuevos y aceptarlos.
+     */
+    void publish(long sequence, int cell, long state) {
+        int slot = (int) (sequence & mask);
+        published.set(slot, -1);
+        VarHandle.storeStoreFence();
+        cells[slot] = cell;
+        states[slot] = state;
+        published.setRelease(slot, sequence);
+    }
+
+    /** Última secuencia reservada por un escritor. */
+    public long getLastSequence() {
+        return lastClaimed.get();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Entrega al receptor los cambios posteriores a {@code afterSequence}, hasta
+     * {@code maxChanges}. Se detiene en el primer cambio todavía no publicado.
+     * @return la última secuencia entregada (o informada como hueco)
+     */
+    public long poll(long afterSequence, Listener listener, int maxChanges) {
+        long next = afterSequence + 1;
+        long last = lastClaimed.get();
+        long oldest = last - mask;
+        if (next < oldest) {
+            listener.onGap(next, oldest - 1);
+            next = oldest;
+        }
+        long delivered = next - 1;
+        for (int count = 0; count < maxChanges && next <= last; count++, next++) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) != next) {
+                if (published.get(slot) > next) {
+                    // Un escritor ya reutilizó la posición: el lector quedó atrás
+                    listener.onGap(next, next);
+                    delivered = next;
+                    continue;
+                }
+                break;
+            }
+            int cell = cells[slot];
+            long state = states[slot];
+            VarHandle.acquireFence();
+            if (published.get(slot) != next) {
+                listener.onGap(next, next);
+            } else {
+                listener.onChange(next, cell / boardSize, cell % boardSize, state);
+            }
+            delivered = next;
+        }
+        return delivered;
+    }
+}
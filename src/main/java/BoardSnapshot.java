@@ -0,0 +1,66 @@
+package entregable2;
+
+import java.util.Map;
+
+/**
+ * Instantánea inmutable del tablero, tomada en una única sección crítica corta
+ * con {@link GameBoard#snapshot()}. Los renderizadores y las estadísticas la
+ * recorren sin volver a tocar los locks del tablero.
+ *
+ * En modo LOCK_FREE la copia es casilla por casilla y puede mezclar estados de
+ * movimientos que ocurrieron durante la captura.
+ */
+public final class BoardSnapshot {
+    private final int size;
+    private final CellStore cells;
+    private final BoardStats stats;
+    private final long sequence;
+
+    BoardSnapshot(int size, CellStore cells, BoardStats stats, long sequence) {
+        this.size = size;
+        this.cells = cells;
+        this.stats = stats;
+        this.sequence = sequence;
+    }
+
+    long state(int x, int y) {
+        return cells.get(x * size + y);
+    }
+
+    public int getSize() { return size; }
+
+    /** Id del jugador en la casilla, o 0 si no hay ninguno. */
+    public int getOccupant(int x, int y) { return CellState.occupant(state(x, y)); }
+    public int getCoins(int x, int y) { return CellState.coins(state(x, y)); }
+    public boolean hasLife(int x, int y) { return CellState.hasLife(state(x, y)); }
+    public boolean hasTrap(int x, int y) { return CellState.hasTrap(state(x, y)); }
+    public boolean isFree(int x, int y) { return CellState.isFree(state(x, y)); }
+
+    public String getCellString(int x, int y) {
+        return CellState.toString(state(x, y));
+    }
+
+    public int getTotalCoins() { return stats.getTotalCoins(); }
+    public int getTotalLives() { return stats.getTotalLives(); }
+    public int getTotalTraps() { return stats.getTotalTraps(); }
+    public int getMaxCoins() { return stats.getMaxCoins(); }
+    public int getMaxLives() { return stats.getMaxLives(); }
+    public int getMaxTraps() { return stats.getMaxTraps(); }
+
+    public Map<Integer, GameBoard.Position> getPlayerPositions() {
+        return stats.getPlayerPositions();
+    }
+
+    /** Contadores y posiciones tomados junto con las casillas. */
+    public BoardStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Última secuencia del flujo de cambios incluida en la instantánea (0 si el flujo
+     * no está activo). Un lector puede seguir con {@link BoardChangeFeed#poll} desde acá.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+}
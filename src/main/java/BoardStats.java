@@ -0,0 +1,45 @@
+package entregable2;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Contadores del tablero y posiciones de los jugadores, sin las casillas. Se obtiene
+ * con {@link GameBoard#stats()} leyendo los contadores atómicos y el índice de
+ * posiciones, sin copiar el almacenamiento ni tomar los locks de las casillas.
+ *
+ * Los valores se leen uno por uno: con movimientos en curso pueden no corresponder
+ * exactamente al mismo instante. Para una vista consistente con las casillas usar
+ * {@link BoardSnapshot#getStats()}.
+ */
+public final class BoardStats {
+    private final int totalCoins;
+    private final int totalLives;
+    private final int totalTraps;
+    private final int maxCoins;
+    private final int maxLives;
+    private final int maxTraps;
+    private final Map<Integer, GameBoard.Position> playerPositions;
+
+    BoardStats(int totalCoins, int totalLives, int totalTraps,
+               int maxCoins, int maxLives, int maxTraps, Map<Integer, GameBoard.Position> playerPositions) {
+        this.totalCoins = totalCoins;
+        this.totalLives = totalLives;
+        this.totalTraps = totalTraps;
+        this.maxCoins = maxCoins;
+        this.maxLives = maxLives;
+        this.maxTraps = maxTraps;
+        this.playerPositions = Collections.unmodifiableMap(playerPositions);
+    }
+
+    public int getTotalCoins() { return totalCoins; }
+    public int getTotalLives() { return totalLives; }
+    public int getTotalTraps() { return totalTraps; }
+    public int getMaxCoins() { return maxCoins; }
+    public int getMaxLives() { return maxLives; }
+    public int getMaxTraps() { return maxTraps; }
+
+    public Map<Integer, GameBoard.Position> getPlayerPositions() {
+        return playerPositions;
+    }
+}
@@ -0,0 +1,157 @@
+package entregable2;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Sprites de las casillas del tablero para un tamaño de casilla, rasterizados una sola
+ * vez en una imagen compartida. Dibujar una casilla es copiar su rectángulo, sin crear
+ * fuentes, colores ni polígonos.
+ *
+ * Las casillas vacías, con vida y con trampa se rasterizan al crear el atlas; los
+ * jugadores y los montos de monedas, la primera vez que aparecen. Los ids y montos
+ * mayores a {@link #MAX_CACHED} se dibujan directamente en cada cambio.
+ *
+ * No es thread-safe: se usa desde el hilo de Swing.
+ */
+final class BoardTileAtlas {
+    static final int MAX_CACHED = 64;
+
+    private static final Color[] PLAYER_COLORS = {Color.BLUE, Color.MAGENTA, Color.ORANGE, Color.CYAN, Color.PINK};
+    private static final Color COIN_COLOR = new Color(212, 175, 55);
+    private static final Color LIFE_COLOR = new Color(34, 177, 76);
+    private static final int COLUMNS = 16;
+    private static final int EMPTY_TILE = 0, LIFE_TILE = 1, TRAP_TILE = 2;
+
+    private final int cellSize;
+    private final Font playerFont;
+    private final Font smallFont;
+    private BufferedImage sheet;
+    private Graphics2D sheetGraphics;
+    private int tiles;
+    // Posición del sprite más uno; 0 mientras no se rasterizó
+    private final int[] playerTiles = new int[MAX_CACHED + 1];
+    private final int[] coinTiles = new int[MAX_CACHED + 1];
+
+    BoardTileAtlas(int cellSize) {
+        this.cellSize = cellSize;
+        this.playerFont = new Font("Arial", Font.BOLD, Math.max(12, cellSize / 3));
+        this.smallFont = new Font("Arial", Font.BOLD, Math.max(10, cellSize / 4));
+        this.sheet = new BufferedImage(COLUMNS * cellSize, 2 * cellSize, BufferedImage.TYPE_INT_RGB);
+        this.sheetGraphics = sheet.createGraphics();
+        rasterize(CellState.EMPTY);
+        rasterize(CellState.withLife(CellState.EMPTY, true));
+        rasterize(CellState.withTrap(CellState.EMPTY, true));
+    }
+
+    int getCellSize() {
+        return cellSize;
+    }
+
+    /** Dibuja la casilla con estado {@code state} con su esquina superior izquierda en (x, y). */
+    void draw(Graphics2D g, long state, int x, int y) {
+        int tile = tileFor(state);
+        if (tile < 0) {
+            Graphics2D cell = (Graphics2D) g.create(x, y, cellSize, cellSize);
+            try {
+                paintTile(cell, state);
+            } finally {
+                cell.dispose();
+            }
+            return;
+        }
+        int sx = (tile % COLUMNS) * cellSize;
+        int sy = (tile / COLUMNS) * cellSize;
+        g.drawImage(sheet, x, y, x + cellSize, y + cellSize, sx, sy, sx + cellSize, sy + cellSize, null);
+    }
+
+    /** @return la posición del sprite, o -1 si la casilla se dibuja directamente */
+    private int tileFor(long state) {
+        int occupant = CellState.occupant(state);
+        if (occupant != 0) {
+            if (occupant < 0 || occupant > MAX_CACHED) return -1;
+            if (playerTiles[occupant] == 0) {
+                playerTiles[occupant] = rasterize(CellState.withOccupant(CellState.EMPTY, occupant)) + 1;
+            }
+            return playerTiles[occupant] - 1;
+        }
+        int coins = CellState.coins(state);
+        if (coins > 0) {
+            if (coins > MAX_CACHED) return -1;
+            if (coinTiles[coins] == 0) {
+                coinTiles[coins] = rasterize(CellState.withCoins(CellState.EMPTY, coins)) + 1;
+            }
+            return coinTiles[coins] - 1;
+        }
+        if (CellState.hasLife(state)) return LIFE_TILE;
+        if (CellState.hasTrap(state)) return TRAP_TILE;
+        return EMPTY_TILE;
+    }
+
+    private int rasterize(long state) {
+        int tile = tiles++;
+        int rows = sheet.getHeight() / cellSize;
+        if (tile >= rows * COLUMNS) {
+            BufferedImage bigger = new BufferedImage(sheet.getWidth(), sheet.getHeight() * 2, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = bigger.createGraphics();
+            g.drawImage(sheet, 0, 0, null);
+            sheetGraphics.dispose();
+            sheet = bigger;
+            sheetGraphics = g;
+        }
+        Graphics2D cell = (Graphics2D) sheetGraphics.create((tile % COLUMNS) * cellSize, (tile / COLUMNS) * cellSize,
+            cellSize, cellSize);
+        try {
+            paintTile(cell, state);
+        } finally {
+            cell.dispose();
+        }
+        return tile;
+    }
+
+    /**
+     * Dibuja la casilla en (0, 0). El borde derecho e inferior queda fuera del recorte:
+     * lo pone la casilla vecina, o el panel en el borde del tablero.
+     */
+    private void paintTile(Graphics g, long state) {
+        int c = cellSize;
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, c, c);
+        g.setColor(Color.GRAY);
+        g.drawRect(0, 0, c, c);
+
+        int occupant = CellState.occupant(state);
+        int coins = CellState.coins(state);
+        if (occupant != 0) {
+            g.setColor(PLAYER_COLORS[Math.floorMod(occupant - 1, PLAYER_COLORS.length)]);
+            g.fillOval(c / 10, c / 10, c * 8 / 10, c * 8 / 10);
+            g.setColor(Color.WHITE);
+            g.setFont(playerFont);
+            g.drawString(String.valueOf(occupant), c / 2 - 5, c / 2 + 6);
+        } else if (coins > 0) {
+            g.setColor(COIN_COLOR);
+            g.fillOval(c / 4, c / 4, c / 2, c / 2);
+            g.setColor(Color.BLACK);
+            g.setFont(smallFont);
+            g.drawString(String.valueOf(coins), c / 2 - 6, c / 2 + 5);
+        } else if (CellState.hasLife(state)) {
+            g.setColor(LIFE_COLOR);
+            int[] xPoints = {c / 2, c / 2 - c / 5, c / 2, c / 2 + c / 5};
+            int[] yPoints = {c / 2 + c / 5, c / 2 - c / 10, c / 2 - c / 4, c / 2 - c / 10};
+            g.fillPolygon(xPoints, yPoints, 4);
+            g.fillOval(c / 2 - c / 5, c / 2 - c / 4, c / 5, c / 5);
+            g.fillOval(c / 2, c / 2 - c / 4, c / 5, c / 5);
+        } else if (CellState.hasTrap(state)) {
+            g.setColor(Color.RED);
+            int[] xPoints = {c / 2, c / 5, c - c / 5};
+            int[] yPoints = {c / 5, c - c / 5, c - c / 5};
+            g.fillPolygon(xPoints, yPoints, 3);
+            g.setColor(Color.BLACK);
+            g.setFont(smallFont);
+            g.drawString("!", c / 2 - 3, c - c / 4);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package entregable2;
+
+/**
+ * Codificación de una casilla del tablero en un único {@code long}.
+ *
+ * <pre>
+ *  bit 63   | bit 62  | bits 32..61 | bits 0..31
+ *  trampa   | vida    | monedas     | id del ocupante (0 = libre)
+ * </pre>
+ *
+ * Un estado igual a {@link #EMPTY} representa una casilla completamente libre.
+ */
+final class CellState {
+    static final long EMPTY = 0L;
+
+    private static final long OCCUPANT_MASK = 0xFFFFFFFFL;
+    private static final int COINS_SHIFT = 32;
+    private static final long COINS_MASK = 0x3FFFFFFFL;
+    private static final long LIFE_BIT = 1L << 62;
+    private static final long TRAP_BIT = 1L << 63;
+
+    /** Máximo de monedas representable en una casilla. */
+    static final int MAX_COINS = (int) COINS_MASK;
+
+    private CellState() {
+    }
+
+    static int occupant(long state) {
+        return (int) (state & OCCUPANT_MASK);
+    }
+
+    static long withOccupant(long state, int playerId) {
+        return (state & ~OCCUPANT_MASK) | (playerId & OCCUPANT_MASK);
+    }
+
+    static int coins(long state) {
+        return (int) ((state >>> COINS_SHIFT) & COINS_MASK);
+    }
+
+    static long withCoins(long state, int coins) {
+        long c = Math.min(Math.max(coins, 0), MAX_COINS);
+        return (state & ~(COINS_MASK << COINS_SHIFT)) | (c << COINS_SHIFT);
+    }
+
+    static boolean hasLife(long state) {
+        return (state & LIFE_BIT) != 0;
+    }
+
+    static long withLife(long state, boolean life) {
+        return life ? state | LIFE_BIT : state & ~LIFE_BIT;
+    }
+
+    static boolean hasTrap(long state) {
+        return (state & TRAP_BIT) != 0;
+    }
+
+    static long withTrap(long state, boolean trap) {
+        return trap ? state | TRAP_BIT : state & ~TRAP_BIT;
+    }
+
+    // Libre para movimiento: sin jugador
+    static boolean isFree(long state) {
+        return occupant(state) == 0;
+    }
+
+    // Completamente libre: sin jugador, monedas, vida ni trampa
+    static boolean isEmpty(long state) {
+        return state == EMPTY;
+    }
+
+    static String toString(long state) {
+        int occupant = occupant(state);
+        if (occupant != 0) {
+            return "P" + occupant;
+        }
+        int coins = coins(state);
+        if (coins > 0) {
+            return "C" + coins;
+        } else if (hasLife(state)) {
+            return "L";
+        } else if (hasTrap(state)) {
+            return "T";
+        } else {
+            return ".";
+        }
+    }
+}
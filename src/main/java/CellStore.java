@@ -0,0 +1,47 @@
+package entregable2;
+
+/**
+ * Almacenamiento de las casillas del tablero. Cada casilla se lee y se escribe
+ * como un estado empaquetado (ver {@link CellState}); el índice de una casilla
+ * (x, y) es {@code x * size + y}.
+ *
+ * El control de concurrencia lo hace {@link GameBoard}; los almacenamientos solo
+ * sincronizan su estructura interna cuando la comparten varias casillas.
+ */
+interface CellStore {
+    long get(int index);
+
+    void set(int index, long state);
+
+    /**
+     * Cambia el estado solo si todavía vale {@code expected}. Las implementaciones
+     * sin soporte atómico lo resuelven con lectura y escritura, lo que alcanza
+     * mientras el tablero tenga tomado el lock de la casilla.
+     */
+    default boolean compareAndSet(int index, long expected, long updated) {
+        if (get(index) != expected) return false;
+        set(index, updated);
+        return true;
+    }
+
+    /**
+     * Copia independiente del contenido actual, usada para las instantáneas del tablero.
+     * El llamador debe impedir escrituras concurrentes si necesita una copia consistente.
+     */
+    CellStore copy();
+
+    /** Cantidad de casillas que no están completamente libres. */
+    long nonEmptyCount();
+
+    /** Estimación de bytes de heap que ocupa el almacenamiento. */
+    long footprintBytes();
+
+    // Tamaños aproximados de la JVM de 64 bits con compressed oops
+    int OBJECT_HEADER = 12;
+    int ARRAY_HEADER = 16;
+    int REFERENCE = 4;
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,129 @@
+package entregable2;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Almacenamiento disperso para tableros muy grandes: las casillas se agrupan en
+ * bloques de CHUNK_SIZE x CHUNK_SIZE que se crean recién cuando se escribe algo en
+ * ellos y se liberan cuando vuelven a quedar completamente vacíos. La memoria es
+ * proporcional a la zona ocupada del tablero.
+ *
+ * Las escrituras de un mismo bloque se serializan con un lock propio del almacenamiento
+ * porque casillas de un bloque pueden pertenecer a distintas regiones del tablero.
+ */
+class ChunkedCellStore implements CellStore {
+    static final int CHUNK_SIZE = 32;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int size;
+    private final int chunksPerRow;
+    private final AtomicReferenceArray<long[]> chunks;
+    // Casillas no vacías de cada bloque, protegido por el lock del bloque
+    private final int[] used;
+    private final ReentrantLock[] chunkLocks;
+    private final LongAdder nonEmpty = new LongAdder();
+
+    ChunkedCellStore(int size) {
+        this.size = size;
+        this.chunksPerRow = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int chunkCount = chunksPerRow * chunksPerRow;
+        this.chunks = new AtomicReferenceArray<>(chunkCount);
+        this.used = new int[chunkCount];
+        this.chunkLocks = new ReentrantLock[64];
+        for (int i = 0; i < chunkLocks.length; i++) {
+            chunkLocks[i] = new ReentrantLock();
+        }
+    }
+
+    private int chunkOf(int index) {
+        return (index / size / CHUNK_SIZE) * chunksPerRow + (index % size / CHUNK_SIZE);
+    }
+
+    private static int offsetOf(int index, int size) {
+        return (index / size % CHUNK_SIZE) * CHUNK_SIZE + (index % size % CHUNK_SIZE);
+    }
+
+    private ReentrantLock lockFor(int chunk) {
+        return chunkLocks[chunk & (chunkLocks.length - 1)];
+    }
+
+    @Override
+    public long get(int index) {
+        long[] chunk = chunks.get(chunkOf(index));
+        return chunk == null ? CellState.EMPTY : (long) CELLS.getAcquire(chunk, offsetOf(index, size));
+    }
+
+    @Override
+    public void set(int index, long state) {
+        int ci = chunkOf(index);
+        ReentrantLock lock = lockFor(ci);
+        lock.lock();
+        try {
+            long[] chunk = chunks.get(ci);
+            if (chunk == null) {
+                if (state == CellState.EMPTY) return;
+                chunk = new long[CHUNK_CELLS];
+                chunks.set(ci, chunk);
+            }
+            int offset = offsetOf(index, size);
+            long previous = chunk[offset];
+            CELLS.setRelease(chunk, offset, state);
+            if (previous == CellState.EMPTY && state != CellState.EMPTY) {
+                used[ci]++;
+                nonEmpty.increment();
+            } else if (previous != CellState.EMPTY && state == CellState.EMPTY) {
+                nonEmpty.decrement();
+                if (--used[ci] == 0) {
+                    chunks.set(ci, null);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long nonEmptyCount() {
+        return nonEmpty.sum();
+    }
+
+    int allocatedChunks() {
+        int count = 0;
+        for (int i = 0; i < chunks.length(); i++) {
+            if (chunks.get(i) != null) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public CellStore copy() {
+        ChunkedCellStore copy = new ChunkedCellStore(size);
+        for (int ci = 0; ci < chunks.length(); ci++) {
+            ReentrantLock lock = lockFor(ci);
+            lock.lock();
+            try {
+                long[] chunk = chunks.get(ci);
+                if (chunk != null) {
+                    copy.chunks.set(ci, chunk.clone());
+                    copy.used[ci] = used[ci];
+                    copy.nonEmpty.add(used[ci]);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public long footprintBytes() {
+        long refs = CellStore.align(CellStore.ARRAY_HEADER + (long) CellStore.REFERENCE * chunks.length());
+        long counts = CellStore.align(CellStore.ARRAY_HEADER + 4L * used.length);
+        return refs + counts + allocatedChunks() * PackedCellStore.estimateFootprint(CHUNK_CELLS);
+    }
+}
@@ -12,6 +12,15 @@ import java.util.concurrent.LinkedBlockingQueue;
  * Clase principal que maneja el juego concurrente
  */
 public class ConcurrentGame {
+    /**
+     * Hilos sobre los que corren jugadores y robots.
+     * VIRTUAL_THREADS usa un hilo virtual por tarea: las esperas entre turnos no ocupan
+     * un hilo del sistema operativo. SIMULATED corre todas las entidades
+     * en un único hilo contra el reloj virtual de un {@link SimulationScheduler}: las
+     * reglas son las mismas pero la partida no espera tiempo real.
+     */
+    public enum ExecutionMode { PLATFORM_THREADS, VIRTUAL_THREADS, SIMULATED }
+
     // Cola de eventos para display/logs
     private final BlockingQueue<String> displayEventQueue = new LinkedBlockingQueue<>();
 
@@ -19,15 +28,23 @@ public class ConcurrentGame {
         return displayEventQueue;
     }
     public String getStatsText() {
+        // Solo contadores y posiciones: no hace falta copiar las casillas
+        return getStatsText(board.stats());
+    }
+
+    public String getStatsText(BoardStats stats) {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("Monedas: %d/%d, Vidas: %d/%d, Trampas: %d/%d\n",
-            board.getTotalCoins(), board.getMaxCoins(),
-            board.getTotalLives(), board.getMaxLives(),
-            board.getTotalTraps(), board.getMaxTraps()));
+            stats.getTotalCoins(), stats.getMaxCoins(),
+            stats.getTotalLives(), stats.getMaxLives(),
+            stats.getTotalTraps(), stats.getMaxTraps()));
         sb.append("\n--- Jugadores ---\n");
+        Map<Integer, GameBoard.Position> positions = stats.getPlayerPositions();
         for (Player p : players) {
-            sb.append(String.format("Jugador %d: Monedas: %d, Vidas: %d, Estado: %s\n",
-                p.getId(), p.getCoins(), p.getLives(), p.isAlive() ? "VIVO" : "MUERTO"));
+            GameBoard.Position pos = positions.get(p.getId());
+            sb.append(String.format("Jugador %d: Monedas: %d, Vidas: %d, Estado: %s, Posición: %s\n",
+                p.getId(), p.getCoins(), p.getLives(), p.isAlive() ? "VIVO" : "MUERTO",
+                pos != null ? pos : "-"));
         }
         return sb.toString();
     }
@@ -35,10 +52,14 @@ public class ConcurrentGame {
     public String getLastLog() {
         return logger.getLastLog();
     }
+    private final GameContext context;
     private final GameBoard board;
     private final GameLogger logger;
     private final ExecutorService executor;
     private final ScheduledExecutorService scheduler;
+    // Solo en modo SIMULATED; reemplaza las esperas reales de las entidades
+    private final SimulationScheduler simulation;
+    private final Random random;
     private final CountDownLatch gameStartLatch;
     private final CountDownLatch gameEndLatch;
     private final ReentrantLock gameStateLock;
@@ -48,16 +69,20 @@ public class ConcurrentGame {
     private final int minPlayers;
     private final int gameDuration; // en segundos
     private final int displayUpdateInterval; // en milisegundos
+    // Tableros más grandes no se imprimen en consola
+    private static final int MAX_CONSOLE_DISPLAY_SIZE = 60;
+    private volatile boolean consoleDisplay = true;
+    // La simulación corre en el hilo de runSimulation() en lugar del executor
+    private boolean inlineSimulation;
     
     // Estado del juego
     private volatile boolean gameRunning;
     private volatile boolean gameStarted;
     private final List<Player> players;
-    private final List<Thread> playerThreads;
+    // Tareas de jugadores y robots enviadas al executor
+    private final List<Future<?>> entityTasks;
     private Thread displayThread;
-    private Thread lifeRobotThread;
-    private Thread coinRobotThread;
-    private Thread evilRobotThread;
+    private volatile BoardSnapshot finalSnapshot;
     
     // Robots
     private LifeRobot lifeRobot;
@@ -67,29 +92,59 @@ public class ConcurrentGame {
     private final int vidasIniciales;
     private final int robotPremioFrecuencia;
     private final int robotTrampaFrecuencia;
-    private final int maxTrampas;
-    private final int maxVidas;
-    private final int maxMonedas;
 
     public ConcurrentGame(int boardSize, int minPlayers, int gameDuration,
                          int vidasIniciales, int maxTrampas, int maxVidas, int maxMonedas,
                          int robotPremioFrecuencia, int robotTrampaFrecuencia) {
-        this.boardSize = boardSize;
-        this.minPlayers = minPlayers;
-        this.gameDuration = gameDuration;
+        this(boardSize, minPlayers, gameDuration, vidasIniciales, maxTrampas, maxVidas, maxMonedas,
+             robotPremioFrecuencia, robotTrampaFrecuencia,
+             GameBoard.StorageMode.PACKED, GameBoard.LockingMode.GLOBAL);
+    }
+
+    public ConcurrentGame(int boardSize, int minPlayers, int gameDuration,
+                         int vidasIniciales, int maxTrampas, int maxVidas, int maxMonedas,
+                         int robotPremioFrecuencia, int robotTrampaFrecuencia,
+                         GameBoard.StorageMode storageMode, GameBoard.LockingMode lockingMode) {
+        this(boardSize, minPlayers, gameDuration, vidasIniciales, maxTrampas, maxVidas, maxMonedas,
+             robotPremioFrecuencia, robotTrampaFrecuencia, storageMode, lockingMode,
+             ExecutionMode.PLATFORM_THREADS);
+    }
+
+    public ConcurrentGame(int boardSize, int minPlayers, int gameDuration,
+                         int vidasIniciales, int maxTrampas, int maxVidas, int maxMonedas,
+                         int robotPremioFrecuencia, int robotTrampaFrecuencia,
+                         GameBoard.StorageMode storageMode, GameBoard.LockingMode lockingMode,
+                         ExecutionMode executionMode) {
+        this(new GameSettings(null, boardSize, minPlayers, gameDuration, vidasIniciales,
+                 maxTrampas, maxVidas, maxMonedas, robotPremioFrecuencia, robotTrampaFrecuencia),
+             GameContext.create(new GameBoard(boardSize, maxTrampas, maxVidas, maxMonedas, storageMode, lockingMode),
+                 GameLogger.getInstance(), executionMode, System.nanoTime()));
+    }
+
+    /**
+     * Partida que toma tablero, logger, aleatoriedad y ejecutores del contexto. Varias
+     * partidas con contextos propios pueden correr en la misma JVM sin compartir locks.
+     */
+    public ConcurrentGame(GameSettings settings, GameContext context) {
+        if (context.getBoard().getSize() != settings.getBoardSize()) {
+            throw new IllegalArgumentException("El tablero del contexto no tiene el tamaño de la configuración");
+        }
+        this.boardSize = settings.getBoardSize();
+        this.minPlayers = settings.getMinPlayers();
+        this.gameDuration = settings.getGameDuration();
         this.displayUpdateInterval = 2000;
 
-        this.vidasIniciales = vidasIniciales;
-        this.maxTrampas = maxTrampas;
-        this.maxVidas = maxVidas;
-        this.maxMonedas = maxMonedas;
-        this.robotPremioFrecuencia = robotPremioFrecuencia;
-        this.robotTrampaFrecuencia = robotTrampaFrecuencia;
+        this.vidasIniciales = settings.getVidasIniciales();
+        this.robotPremioFrecuencia = settings.getRobotPremioFrecuencia();
+        this.robotTrampaFrecuencia = settings.getRobotTrampaFrecuencia();
 
-        this.board = new GameBoard(boardSize, maxTrampas, maxVidas, maxMonedas);
-        this.logger = GameLogger.getInstance();
-        this.executor = Executors.newCachedThreadPool();
-        this.scheduler = Executors.newScheduledThreadPool(2);
+        this.context = context;
+        this.board = context.getBoard();
+        this.logger = context.getLogger();
+        this.executor = context.getExecutor();
+        this.scheduler = context.getScheduler();
+        this.simulation = context.getSimulation();
+        this.random = context.newRandom();
         this.gameStartLatch = new CountDownLatch(1);
         this.gameEndLatch = new CountDownLatch(1);
         this.gameStateLock = new ReentrantLock();
@@ -97,14 +152,14 @@ public class ConcurrentGame {
         this.gameRunning = false;
         this.gameStarted = false;
         this.players = new ArrayList<>();
-        this.playerThreads = new ArrayList<>();
+        this.entityTasks = new ArrayList<>();
 
         // Inicializar robots con frecuencias configurables
-        this.lifeRobot = new LifeRobot(board, robotPremioFrecuencia, robotPremioFrecuencia + 2000);
-        this.coinRobot = new CoinRobot(board, robotPremioFrecuencia, robotPremioFrecuencia + 2000);
-        this.evilRobot = new EvilRobot(board, robotTrampaFrecuencia, robotTrampaFrecuencia + 4000);
+        this.lifeRobot = new LifeRobot(context, robotPremioFrecuencia, robotPremioFrecuencia + 2000);
+        this.coinRobot = new CoinRobot(context, robotPremioFrecuencia, robotPremioFrecuencia + 2000);
+        this.evilRobot = new EvilRobot(context, robotTrampaFrecuencia, robotTrampaFrecuencia + 4000);
     }
-    
+
     /**
      * Agrega un jugador al juego
      */
@@ -115,21 +170,21 @@ public class ConcurrentGame {
         this.uiUpdateCallback = callback;
     }
 
+    /** Activa o desactiva la impresión del tablero en consola. */
+    public void setConsoleDisplay(boolean consoleDisplay) {
+        this.consoleDisplay = consoleDisplay;
+    }
+
     public boolean addPlayer() {
         gameStateLock.lock();
         try {
             if (gameStarted) {
-                logger.log("No se pueden agregar jugadores durante una partida en curso");
+                logger.logEvent(EventType.JOIN_REJECTED);
                 return false;
             }
-            Player player;
-            if (uiUpdateCallback != null) {
-                player = new Player(players.size() + 1, board, vidasIniciales, uiUpdateCallback);
-            } else {
-                player = new Player(players.size() + 1, board, vidasIniciales);
-            }
+            Player player = new Player(players.size() + 1, context, vidasIniciales, uiUpdateCallback);
             players.add(player);
-            logger.log("Jugador " + player.getId() + " se unió al juego. Total: " + players.size() + "/" + minPlayers);
+            logger.logEvent(EventType.PLAYER_JOINED, player.getId(), 0, 0, players.size(), minPlayers);
             // Verificar si se puede comenzar el juego
             if (players.size() >= minPlayers && !gameStarted) {
                 startGame();
@@ -151,8 +206,8 @@ public class ConcurrentGame {
             gameStarted = true;
             gameRunning = true;
             
-            logger.logGameEvent("Iniciando partida con " + players.size() + " jugadores");
-            logger.logGameEvent("Duración: " + gameDuration + " segundos");
+            logger.logEvent(EventType.GAME_STARTING, 0, 0, 0, players.size(), 0);
+            logger.logEvent(EventType.GAME_DURATION, 0, 0, 0, gameDuration, 0);
             
             // Posicionar jugadores en el tablero
             for (Player player : players) {
@@ -160,50 +215,107 @@ public class ConcurrentGame {
                 boolean positioned = false;
                 int attempts = 0;
                 while (!positioned && attempts < 100) {
-                    int x = (int) (Math.random() * boardSize);
-                    int y = (int) (Math.random() * boardSize);
+                    int x = random.nextInt(boardSize);
+                    int y = random.nextInt(boardSize);
                     if (board.occupyCell(x, y, player)) {
                         positioned = true;
-                        logger.logPlayerAction(player.getId(), "Posicionado en (" + x + "," + y + ")");
+                        logger.logEvent(EventType.PLAYER_POSITIONED, player.getId(), x, y, 0, 0);
                     }
                     attempts++;
                 }
             }
             
-            // Iniciar hilos de jugadores
-            for (Player player : players) {
-                Thread playerThread = new Thread(player);
-                playerThreads.add(playerThread);
-                playerThread.start();
+            if (simulation != null) {
+                startSimulation();
+            } else {
+                // Iniciar jugadores
+                for (Player player : players) {
+                    entityTasks.add(executor.submit(player));
+                }
+
+                // Iniciar robots
+                entityTasks.add(executor.submit(lifeRobot));
+                entityTasks.add(executor.submit(coinRobot));
+                entityTasks.add(executor.submit(evilRobot));
+
+                // Iniciar hilo de visualización
+                if (consoleDisplay && boardSize <= MAX_CONSOLE_DISPLAY_SIZE) {
+                    startDisplayThread();
+                }
+
+                // Programar fin del juego por tiempo
+                scheduler.schedule(() -> {
+                    endGameByTime();
+                }, gameDuration, TimeUnit.SECONDS);
             }
             
-            // Iniciar robots
-            lifeRobotThread = new Thread(lifeRobot);
-            coinRobotThread = new Thread(coinRobot);
-            evilRobotThread = new Thread(evilRobot);
-            
-            lifeRobotThread.start();
-            coinRobotThread.start();
-            evilRobotThread.start();
-            
-            // Iniciar hilo de visualización
-            startDisplayThread();
-            
-            // Programar fin del juego por tiempo
-            scheduler.schedule(() -> {
-                endGameByTime();
-            }, gameDuration, TimeUnit.SECONDS);
-            
             // Señalar que el juego ha comenzado
             gameStartLatch.countDown();
             
-            logger.logGameEvent("¡Juego iniciado!");
+            logger.logEvent(EventType.GAME_STARTED);
             
         } finally {
             gameStateLock.unlock();
         }
     }
     
+    /**
+     * Programa jugadores, robots y el fin por tiempo en el reloj virtual y corre la
+     * simulación en el executor. No hay hilo de visualización: la partida entera
+     * dura lo que tarde la CPU en procesarla.
+     */
+    private void startSimulation() {
+        for (Player player : players) {
+            simulation.schedule(player, 0);
+        }
+        simulation.schedule(lifeRobot, 0);
+        simulation.schedule(coinRobot, 0);
+        simulation.schedule(evilRobot, 0);
+        simulation.scheduleOnce(this::endGameByTime, TimeUnit.SECONDS.toMillis(gameDuration));
+        if (!inlineSimulation) {
+            entityTasks.add(executor.submit(simulation::run));
+        }
+    }
+
+    /**
+     * Juega una partida completa en modo SIMULATED en el hilo que llama, sin usar el
+     * executor: agrega los jugadores que falten hasta el mínimo y vuelve cuando la
+     * partida terminó. Pensado para ejecutar muchas partidas sobre un pool compartido.
+     */
+    public void runSimulation() {
+        if (simulation == null) {
+            throw new IllegalStateException("runSimulation requiere ExecutionMode.SIMULATED");
+        }
+        gameStateLock.lock();
+        try {
+            if (gameStarted) {
+                throw new IllegalStateException("La partida ya comenzó");
+            }
+            inlineSimulation = true;
+            while (!gameStarted) {
+                addPlayer();
+            }
+        } finally {
+            gameStateLock.unlock();
+        }
+        simulation.run();
+    }
+
+    /**
+     * Programa una observación periódica sobre el reloj simulado mientras dure la
+     * partida, empezando en el instante 0. Solo en modo SIMULATED y antes de empezar.
+     */
+    public void scheduleSimulationProbe(long periodMillis, Runnable probe) {
+        if (simulation == null) {
+            throw new IllegalStateException("scheduleSimulationProbe requiere ExecutionMode.SIMULATED");
+        }
+        simulation.schedule(() -> {
+            if (gameStarted && !gameRunning) return -1;
+            probe.run();
+            return periodMillis;
+        }, 0);
+    }
+
     /**
      * Hilo de visualización del tablero
      */
@@ -230,7 +342,7 @@ public class ConcurrentGame {
             if (!gameRunning) return;
             
             gameRunning = false;
-            logger.logGameEvent("Tiempo agotado - Finalizando partida");
+            logger.logEvent(EventType.TIME_UP);
             endGame();
         } finally {
             gameStateLock.unlock();
@@ -246,7 +358,7 @@ public class ConcurrentGame {
             if (!gameRunning) return;
             
             gameRunning = false;
-            logger.logGameEvent("Solo queda un jugador vivo - Finalizando partida");
+            logger.logEvent(EventType.LAST_PLAYER_STANDING);
             endGame();
         } finally {
             gameStateLock.unlock();
@@ -266,16 +378,25 @@ public class ConcurrentGame {
         lifeRobot.stop();
         coinRobot.stop();
         evilRobot.stop();
+        if (simulation != null) simulation.stop();
         
-        // Esperar a que terminen todos los hilos
+        // Esperar a que terminen todas las tareas, como máximo 1 segundo en total.
+        // Desde el propio hilo de la simulación no hay nada que esperar.
         try {
-            for (Thread thread : playerThreads) {
-                thread.join(1000); // Esperar máximo 1 segundo
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            boolean onSimulationThread = simulation != null && simulation.isSimulationThread();
+            for (Future<?> task : onSimulationThread ? Collections.<Future<?>>emptyList() : entityTasks) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                try {
+                    task.get(remaining, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    break;
+                } catch (ExecutionException e) {
+                    logger.log(GameLogger.Level.ERROR, GameLogger.Category.GAME,
+                        "Error en una tarea del juego: " + e.getCause());
+                }
             }
-            
-            if (lifeRobotThread != null) lifeRobotThread.join(1000);
-            if (coinRobotThread != null) coinRobotThread.join(1000);
-            if (evilRobotThread != null) evilRobotThread.join(1000);
             if (displayThread != null) displayThread.join(1000);
             
         } catch (InterruptedException e) {
@@ -283,8 +404,13 @@ public class ConcurrentGame {
         }
         
         // Mostrar resultado final
-        board.display(players);
+        finalSnapshot = board.snapshot();
+        if (consoleDisplay && boardSize <= MAX_CONSOLE_DISPLAY_SIZE) {
+            board.display(finalSnapshot, players);
+        }
         logger.logGameEnd(players.toArray(new Player[0]));
+        // Los resultados quedan en disco antes de avisar que terminó
+        logger.force();
         
         // Señalar que el juego ha terminado
         gameEndLatch.countDown();
@@ -328,20 +454,12 @@ public class ConcurrentGame {
      * Cierra los recursos del juego
      */
     public void shutdown() {
-        executor.shutdown();
-        scheduler.shutdown();
-        logger.close();
-        
         try {
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
+            context.shutdownExecutors();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        logger.close();
     }
     
     /**
@@ -352,22 +470,27 @@ public class ConcurrentGame {
         try {
             // Limpiar estado anterior
             players.clear();
-            playerThreads.clear();
+            entityTasks.clear();
             gameStarted = false;
             gameRunning = false;
             
             // Crear nuevo tablero
             // (En una implementación real, se recrearía el GameBoard)
             
-            logger.logGameEvent("Juego reiniciado - Listo para nueva partida");
+            logger.logEvent(EventType.GAME_RESET);
         } finally {
             gameStateLock.unlock();
         }
     }
 
     public GameBoard getBoard() { return board; }
+    /** Estado del tablero al terminar la partida, o null si todavía no terminó. */
+    public BoardSnapshot getFinalSnapshot() { return finalSnapshot; }
     public List<Player> getPlayers() { return players; }
     public GameLogger getLogger() { return logger; }
+    public GameContext getContext() { return context; }
+    /** Tiempo simulado transcurrido en ms, o -1 si la partida no corre en modo SIMULATED. */
+    public long getSimulatedTimeMillis() { return simulation != null ? simulation.now() : -1; }
 
     public String getAllLogsText() {
         StringBuilder sb = new StringBuilder();
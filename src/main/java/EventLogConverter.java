@@ -0,0 +1,41 @@
+package entregable2;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Convierte un registro binario de eventos ({@link BinaryEventLog}) al formato de
+ * texto de los archivos {@code game_log_*.txt}.
+ *
+ * Uso: {@code java entregable2.EventLogConverter <registro.bin> [salida.txt]}
+ * <p>
+ * Sin archivo de salida imprime por consola.
+ */
+public class EventLogConverter {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Uso: java entregable2.EventLogConverter <registro.bin> [salida.txt]");
+            return;
+        }
+        PrintWriter out = args.length > 1
+            ? new PrintWriter(Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8))
+            : new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        try {
+            long count = BinaryEventLog.read(Paths.get(args[0]),
+                (time, type, entity, x, y, amount, extra, aux) ->
+                    out.println(GameLogger.formatLine(time, type.format(entity, x, y, amount, extra, aux))));
+            out.flush();
+            if (args.length > 1) {
+                System.out.println(count + " eventos convertidos a " + args[1]);
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
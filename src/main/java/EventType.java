@@ -0,0 +1,171 @@
+package entregable2;
+
+import static entregable2.GameLogger.Category.*;
+import static entregable2.GameLogger.Level.*;
+
+/**
+ * Tipos de evento que registra {@link GameLogger}. Cada evento lleva solo primitivos
+ * (entidad, coordenadas, cantidad, un valor extra y uno auxiliar) y sabe producir su
+ * línea de texto, la misma que aparece en los archivos {@code game_log_*.txt}. Así el
+ * registro binario ({@link BinaryEventLog}) guarda registros de ancho fijo y el texto
+ * se arma recién cuando hace falta.
+ *
+ * El código de cada tipo se guarda en el archivo binario; no se deben reutilizar.
+ */
+public enum EventType {
+    // Movimientos y robots que colocan objetos son DEBUG: lo que se apaga primero
+    LOG_STARTED(1, GAME, INFO),
+    LOG_ENDED(2, GAME, INFO),
+    LOG_DROPPED(3, GAME, WARN),             // amount = mensajes descartados
+    JOIN_REJECTED(10, GAME, WARN),
+    PLAYER_JOINED(11, GAME, INFO),          // amount = jugadores, extra = mínimo
+    GAME_STARTING(12, GAME, INFO),          // amount = jugadores
+    GAME_DURATION(13, GAME, INFO),          // amount = segundos
+    GAME_STARTED(14, GAME, INFO),
+    TIME_UP(15, GAME, INFO),
+    LAST_PLAYER_STANDING(16, GAME, INFO),
+    GAME_RESET(17, GAME, INFO),
+    GAME_ENDED(18, GAME, INFO),
+    FINAL_RESULTS(19, GAME, INFO),
+    PLAYER_RESULT(20, GAME, INFO),          // amount = monedas, extra = vidas, aux = 1 si está vivo
+    WINNER(21, GAME, INFO),                 // amount = monedas
+    NO_WINNER(22, GAME, INFO),
+    PLAYER_POSITIONED(30, PLAYER, INFO),
+    PLAYER_MOVED(31, PLAYER, DEBUG),        // (x, y) = inicio, amount = dado, extra = pasos, aux = dirección
+    COINS_COLLECTED(32, PLAYER, INFO),      // amount = monedas, extra = total
+    LIFE_COLLECTED(33, PLAYER, INFO),       // extra = vidas
+    TRAP_HIT(34, PLAYER, INFO),             // extra = vidas restantes
+    PLAYER_DIED(35, PLAYER, INFO),
+    PLAYER_INTERRUPTED(36, PLAYER, WARN),
+    COINS_PLACED(40, ROBOT, DEBUG),         // amount = monedas
+    COIN_ROBOT_WAITING(41, ROBOT, DEBUG),
+    COIN_ROBOT_NO_SPACE(42, ROBOT, WARN),
+    LIFE_PLACED(43, ROBOT, DEBUG),
+    LIFE_ROBOT_WAITING(44, ROBOT, DEBUG),
+    LIFE_ROBOT_NO_SPACE(45, ROBOT, WARN),
+    TRAP_PLACED(46, ROBOT, DEBUG),
+    TRAP_ROBOT_DONE(47, ROBOT, INFO),
+    TRAP_ROBOT_NO_SPACE(48, ROBOT, WARN),
+    TRAP_ROBOT_INTERRUPTED(49, ROBOT, WARN);
+
+    private static final EventType[] BY_CODE = new EventType[64];
+    static {
+        for (EventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+    private final GameLogger.Category category;
+    private final GameLogger.Level level;
+
+    EventType(int code, GameLogger.Category category, GameLogger.Level level) {
+        this.code = code;
+        this.category = category;
+        this.level = level;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public GameLogger.Category getCategory() {
+        return category;
+    }
+
+    public GameLogger.Level getLevel() {
+        return level;
+    }
+
+    /** Clase de la línea para la interfaz (ver {@link GameLogger.Kind}). */
+    public GameLogger.Kind getKind() {
+        switch (this) {
+            case PLAYER_MOVED: return GameLogger.Kind.MOVE;
+            case COINS_COLLECTED:
+            case LIFE_COLLECTED:
+                return GameLogger.Kind.PICKUP;
+            case TRAP_HIT: return GameLogger.Kind.TRAP;
+            case PLAYER_DIED: return GameLogger.Kind.DEATH;
+            case GAME_STARTING:
+            case GAME_DURATION:
+            case GAME_STARTED:
+            case TIME_UP:
+            case LAST_PLAYER_STANDING:
+            case GAME_RESET:
+            case GAME_ENDED:
+            case WINNER:
+            case NO_WINNER:
+                return GameLogger.Kind.EVENT;
+            default:
+                return category == ROBOT ? GameLogger.Kind.ROBOT : GameLogger.Kind.OTHER;
+        }
+    }
+
+    /** Tipo con el código dado, o null si no existe. */
+    public static EventType fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /** Dirección de un movimiento en un solo valor, para el campo auxiliar. */
+    public static int direction(int dx, int dy) {
+        return (dx + 1) * 3 + (dy + 1);
+    }
+
+    /**
+     * Línea de texto del evento, sin la marca de tiempo.
+     */
+    public String format(int entity, int x, int y, int amount, int extra, int aux) {
+        switch (this) {
+            case LOG_STARTED: return "=== INICIO DE NUEVA PARTIDA ===";
+            case LOG_ENDED: return "=== FIN DEL LOG ===";
+            case LOG_DROPPED: return "LOGGER: " + amount + " mensajes descartados por buffer lleno";
+            case JOIN_REJECTED: return "No se pueden agregar jugadores durante una partida en curso";
+            case PLAYER_JOINED: return "Jugador " + entity + " se unió al juego. Total: " + amount + "/" + extra;
+            case GAME_STARTING: return "EVENTO: Iniciando partida con " + amount + " jugadores";
+            case GAME_DURATION: return "EVENTO: Duración: " + amount + " segundos";
+            case GAME_STARTED: return "EVENTO: ¡Juego iniciado!";
+            case TIME_UP: return "EVENTO: Tiempo agotado - Finalizando partida";
+            case LAST_PLAYER_STANDING: return "EVENTO: Solo queda un jugador vivo - Finalizando partida";
+            case GAME_RESET: return "EVENTO: Juego reiniciado - Listo para nueva partida";
+            case GAME_ENDED: return "=== FIN DE PARTIDA ===";
+            case FINAL_RESULTS: return "RESULTADOS FINALES:";
+            case PLAYER_RESULT:
+                return "Jugador " + entity + " - Vidas: " + extra + ", Monedas: " + amount
+                    + ", Estado: " + (aux != 0 ? "VIVO" : "MUERTO");
+            case WINNER: return "GANADOR: Jugador " + entity + " con " + amount + " monedas";
+            case NO_WINNER: return "NO HAY GANADOR - Todos los jugadores murieron";
+            case PLAYER_POSITIONED: return "JUGADOR " + entity + ": Posicionado en (" + x + "," + y + ")";
+            case PLAYER_MOVED: return "Jugador " + entity + " se movió con dado " + amount + ": " + path(x, y, extra, aux);
+            case COINS_COLLECTED: return "Jugador " + entity + " recolectó " + amount + " monedas! Total: " + extra;
+            case LIFE_COLLECTED: return "Jugador " + entity + " recolectó una vida! Total: " + extra;
+            case TRAP_HIT: return "Jugador " + entity + " cayó en una trampa! Perdió una vida. Vidas restantes: " + extra;
+            case PLAYER_DIED: return "Jugador " + entity + " ha muerto!";
+            case PLAYER_INTERRUPTED: return "Jugador " + entity + " interrumpido";
+            case COINS_PLACED: return "Robot de Monedas colocó " + amount + " monedas en (" + x + "," + y + ")";
+            case COIN_ROBOT_WAITING: return "Robot de Monedas: Esperando a que se liberen casillas...";
+            case COIN_ROBOT_NO_SPACE: return "Robot de Monedas: No encontró casillas libres para colocar monedas";
+            case LIFE_PLACED: return "Robot de Vidas colocó una vida en (" + x + "," + y + ")";
+            case LIFE_ROBOT_WAITING: return "Robot de Vidas: Esperando a que se tomen vidas del tablero...";
+            case LIFE_ROBOT_NO_SPACE: return "Robot de Vidas: No encontró casillas libres para colocar vida";
+            case TRAP_PLACED: return "Robot Malo colocó una trampa en (" + x + "," + y + ")";
+            case TRAP_ROBOT_DONE: return "Robot Malo: Ya colocó el máximo de trampas. Terminando labor.";
+            case TRAP_ROBOT_NO_SPACE: return "Robot Malo: No encontró casillas libres para colocar trampa";
+            case TRAP_ROBOT_INTERRUPTED: return "Robot Malo interrumpido";
+            default: return name();
+        }
+    }
+
+    /** Separador entre las casillas del recorrido de {@link #PLAYER_MOVED}. */
+    static final String PATH_ARROW = " -> ";
+
+    private static String path(int x, int y, int steps, int direction) {
+        int dx = direction / 3 - 1;
+        int dy = direction % 3 - 1;
+        StringBuilder sb = new StringBuilder();
+        sb.append('(').append(x).append(',').append(y).append(')');
+        for (int step = 1; step <= steps; step++) {
+            sb.append(PATH_ARROW).append('(').append(x + dx * step).append(',').append(y + dy * step).append(')');
+        }
+        return sb.toString();
+    }
+}
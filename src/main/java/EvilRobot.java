@@ -6,16 +6,18 @@ import java.util.Random;
 /**
  * Robot malo que coloca trampas en el tablero
  */
-public class EvilRobot implements Runnable {
+public class EvilRobot implements Runnable, SimulationScheduler.Entity {
     private final GameBoard board;
+    private final GameLogger logger;
     private final Random random;
     private volatile boolean isRunning;
     private final int wMin;
     private final int wMax;
 
-    public EvilRobot(GameBoard board, int wMin, int wMax) {
-        this.board = board;
-        this.random = new Random();
+    public EvilRobot(GameContext context, int wMin, int wMax) {
+        this.board = context.getBoard();
+        this.logger = context.getLogger();
+        this.random = context.newRandom();
         this.isRunning = true;
         this.wMin = wMin;
         this.wMax = wMax;
@@ -23,49 +25,45 @@ public class EvilRobot implements Runnable {
     
     @Override
     public void run() {
-        GameLogger logger = GameLogger.getInstance();
         try {
-            while (isRunning) {
-                performAction();
-
-                // Espera aleatoria entre colocación de trampas
-                int waitTime = wMin + random.nextInt(wMax - wMin + 1);
+            long waitTime;
+            while ((waitTime = step()) >= 0) {
                 Thread.sleep(waitTime);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            logger.log("Robot Malo interrumpido");
+            logger.logEvent(EventType.TRAP_ROBOT_INTERRUPTED);
         }
     }
     
+    /**
+     * Coloca una trampa sin dormir.
+     * @return milisegundos hasta la próxima colocación, o -1 si el robot terminó
+     */
+    @Override
+    public long step() {
+        if (!isRunning) return -1;
+        performAction();
+        // Espera aleatoria entre colocación de trampas
+        return wMin + random.nextInt(wMax - wMin + 1);
+    }
+
     private void performAction() {
-        GameLogger logger = GameLogger.getInstance();
         // Verificar si ya hay el máximo de trampas (10% del total de casillas)
         if (board.getTotalTraps() >= board.getMaxTraps()) {
-            logger.log("Robot Malo: Ya colocó el máximo de trampas. Terminando labor.");
+            logger.logEvent(EventType.TRAP_ROBOT_DONE);
             isRunning = false;
             return;
         }
 
-        // Buscar posición libre para colocar trampa
-        int attempts = 0;
-        int maxAttempts = board.getSize() * board.getSize() * 2;
-
-        while (attempts < maxAttempts) {
-            int x = random.nextInt(board.getSize());
-            int y = random.nextInt(board.getSize());
-
-            // La casilla debe estar libre (sin jugadores ni premios)
-            if (board.isCellFree(x, y)) {
-                if (board.addTrap(x, y)) {
-                    logger.log("Robot Malo colocó una trampa en (" + x + "," + y + ")");
-                    return;
-                }
-            }
-            attempts++;
+        // Colocar la trampa en una casilla libre elegida al azar por el tablero
+        GameBoard.Position pos = board.placeTrapAtRandom(random);
+        if (pos != null) {
+            logger.logEvent(EventType.TRAP_PLACED, 0, pos.getX(), pos.getY(), 1, 0);
+            return;
         }
 
-        logger.log("Robot Malo: No encontró casillas libres para colocar trampa");
+        logger.logEvent(EventType.TRAP_ROBOT_NO_SPACE);
     }
     
     public void stop() {
@@ -0,0 +1,117 @@
+package entregable2;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Índice de las casillas completamente libres del tablero: un bit por casilla en
+ * palabras de 64 bits que se cambian por compare-and-set, más un contador de casillas
+ * libres por bloque de {@link #BLOCK_WORDS} palabras. Con los contadores se ubica la
+ * casilla libre número k (select) sin recorrer todo el bitset.
+ *
+ * No usa locks: dos cambios solo compiten si caen en la misma palabra o bloque, y
+ * entonces reintentan el CAS. Mientras hay cambios en curso los contadores pueden
+ * diferir por poco de los bits, así que la casilla elegida se valida con el lock o
+ * el CAS de la casilla antes de usarla.
+ */
+final class FreeCellIndex {
+    // 4096 casillas por bloque
+    private static final int BLOCK_WORDS = 64;
+
+    private final AtomicLongArray words;
+    private final AtomicIntegerArray blockFree;
+
+    /** Crea el índice con todas las casillas libres. */
+    FreeCellIndex(int cellCount) {
+        int wordCount = (cellCount + 63) >>> 6;
+        this.words = new AtomicLongArray(wordCount);
+        this.blockFree = new AtomicIntegerArray((wordCount + BLOCK_WORDS - 1) / BLOCK_WORDS);
+        for (int w = 0; w < wordCount; w++) {
+            int bits = Math.min(64, cellCount - (w << 6));
+            words.set(w, bits == 64 ? -1L : (1L << bits) - 1);
+            blockFree.addAndGet(w / BLOCK_WORDS, bits);
+        }
+    }
+
+    /**
+     * Marca la casilla como libre u ocupada.
+     * @return true si el bit cambió
+     */
+    boolean set(int idx, boolean free) {
+        int w = idx >>> 6;
+        long bit = 1L << idx;
+        while (true) {
+            long current = words.get(w);
+            if (((current & bit) != 0) == free) return false;
+            if (words.compareAndSet(w, current, current ^ bit)) {
+                blockFree.addAndGet(w / BLOCK_WORDS, free ? 1 : -1);
+                return true;
+            }
+        }
+    }
+
+    /** Cantidad de casillas libres, sumando los contadores de los bloques. */
+    int count() {
+        int total = 0;
+        for (int b = 0; b < blockFree.length(); b++) {
+            total += blockFree.get(b);
+        }
+        return Math.max(total, 0);
+    }
+
+    /**
+     * Casilla libre elegida al azar (uniforme).
+     * @return el índice de la casilla, o -1 si no hay libres o los contadores
+     *         quedaron adelantados a los bits por un cambio en curso
+     */
+    int random(Random random) {
+        int free = count();
+        if (free == 0) return -1;
+        return select(random.nextInt(free));
+    }
+
+    /**
+     * Casilla libre número {@code rank} en orden de índice: se saltean los bloques
+     * por su contador y dentro del bloque las palabras por su cantidad de bits.
+     * @return el índice de la casilla, o -1 si ya no hay tantas libres
+     */
+    int select(int rank) {
+        for (int b = 0; b < blockFree.length(); b++) {
+            int free = blockFree.get(b);
+            if (rank >= free) {
+                rank -= free;
+                continue;
+            }
+            int end = Math.min((b + 1) * BLOCK_WORDS, words.length());
+            for (int w = b * BLOCK_WORDS; w < end; w++) {
+                long word = words.get(w);
+                int bits = Long.bitCount(word);
+                if (rank >= bits) {
+                    rank -= bits;
+                    continue;
+                }
+                // Descartar los rank bits más bajos y tomar el siguiente
+                for (int i = 0; i < rank; i++) {
+                    word &= word - 1;
+                }
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            return -1;
+        }
+        return -1;
+    }
+
+    long footprintBytes() {
+        return estimateFootprint(words.length() * 64L);
+    }
+
+    /** Bytes de heap estimados del índice para {@code cellCount} casillas. */
+    static long estimateFootprint(long cellCount) {
+        long wordCount = (cellCount + 63) >>> 6;
+        long blocks = (wordCount + BLOCK_WORDS - 1) / BLOCK_WORDS;
+        return 2 * CellStore.align(CellStore.OBJECT_HEADER + CellStore.REFERENCE)
+            + CellStore.align(CellStore.ARRAY_HEADER + 8L * wordCount)
+            + CellStore.align(CellStore.ARRAY_HEADER + 4L * blocks);
+    }
+}
@@ -7,16 +7,18 @@ import java.util.Random;
 /**
  * Clase base para los robots amigables
  */
-public abstract class FriendlyRobot implements Runnable {
+public abstract class FriendlyRobot implements Runnable, SimulationScheduler.Entity {
     protected final GameBoard board;
+    protected final GameLogger logger;
     protected final Random random;
     protected volatile boolean isRunning;
     protected final int minWaitTime;
     protected final int maxWaitTime;
     
-    public FriendlyRobot(GameBoard board, int minWaitTime, int maxWaitTime) {
-        this.board = board;
-        this.random = new Random();
+    public FriendlyRobot(GameContext context, int minWaitTime, int maxWaitTime) {
+        this.board = context.getBoard();
+        this.logger = context.getLogger();
+        this.random = context.newRandom();
         this.isRunning = true;
         this.minWaitTime = minWaitTime;
         this.maxWaitTime = maxWaitTime;
@@ -25,11 +27,8 @@ public abstract class FriendlyRobot implements Runnable {
     @Override
     public void run() {
         try {
-            while (isRunning) {
-                performAction();
-                
-                // Espera aleatoria entre acciones
-                int waitTime = minWaitTime + random.nextInt(maxWaitTime - minWaitTime + 1);
+            long waitTime;
+            while ((waitTime = step()) >= 0) {
                 Thread.sleep(waitTime);
             }
         } catch (InterruptedException e) {
@@ -38,6 +37,18 @@ public abstract class FriendlyRobot implements Runnable {
         }
     }
     
+    /**
+     * Ejecuta una acción sin dormir.
+     * @return milisegundos hasta la próxima acción, o -1 si el robot terminó
+     */
+    @Override
+    public long step() {
+        if (!isRunning) return -1;
+        performAction();
+        // Espera aleatoria entre acciones
+        return minWaitTime + random.nextInt(maxWaitTime - minWaitTime + 1);
+    }
+
     protected abstract void performAction();
     protected abstract String getRobotName();
     
@@ -46,19 +57,8 @@ public abstract class FriendlyRobot implements Runnable {
     }
     
     protected boolean findRandomFreePosition() {
-        int attempts = 0;
-        int maxAttempts = board.getSize() * board.getSize() * 2;
-        
-        while (attempts < maxAttempts) {
-            int x = random.nextInt(board.getSize());
-            int y = random.nextInt(board.getSize());
-            // Solo considerar casillas completamente libres para colocar premios
-            if (board.getCellString(x, y).equals(".")) {
-                return true;
-            }
-            attempts++;
-        }
-        return false;
+        // Solo considerar casillas completamente libres para colocar premios
+        return board.getFreeCellCount() > 0;
     }
 }
 
@@ -66,37 +66,26 @@ public abstract class FriendlyRobot implements Runnable {
  * Robot que coloca vidas en el tablero
  */
 class LifeRobot extends FriendlyRobot {
-    public LifeRobot(GameBoard board, int minWaitTime, int maxWaitTime) {
-        super(board, minWaitTime, maxWaitTime);
+    public LifeRobot(GameContext context, int minWaitTime, int maxWaitTime) {
+        super(context, minWaitTime, maxWaitTime);
     }
     
     @Override
     protected void performAction() {
-        GameLogger logger = GameLogger.getInstance();
         // Verificar si ya hay el máximo de vidas en el tablero
         if (board.getTotalLives() >= board.getMaxLives()) {
-            logger.log("Robot de Vidas: Esperando a que se tomen vidas del tablero...");
+            logger.logEvent(EventType.LIFE_ROBOT_WAITING);
             return;
         }
 
-        // Buscar posición libre para colocar vida
-        int attempts = 0;
-        int maxAttempts = board.getSize() * board.getSize();
-
-        while (attempts < maxAttempts) {
-            int x = random.nextInt(board.getSize());
-            int y = random.nextInt(board.getSize());
-            // Solo colocar vida si la casilla está completamente libre
-            if (board.getCellString(x, y).equals(".")) {
-                if (board.addLife(x, y)) {
-                    logger.log("Robot de Vidas colocó una vida en (" + x + "," + y + ")");
-                    return;
-                }
-            }
-            attempts++;
+        // Colocar vida en una casilla completamente libre elegida al azar
+        GameBoard.Position pos = board.placeLifeAtRandom(random);
+        if (pos != null) {
+            logger.logEvent(EventType.LIFE_PLACED, 0, pos.getX(), pos.getY(), 1, 0);
+            return;
         }
 
-        logger.log("Robot de Vidas: No encontró casillas libres para colocar vida");
+        logger.logEvent(EventType.LIFE_ROBOT_NO_SPACE);
     }
     
     @Override
@@ -111,38 +100,29 @@ class LifeRobot extends FriendlyRobot {
 class CoinRobot extends FriendlyRobot {
     private final int[] coinValues = {1, 2, 5, 10};
 
-    public CoinRobot(GameBoard board, int minWaitTime, int maxWaitTime) {
-        super(board, minWaitTime, maxWaitTime);
+    public CoinRobot(GameContext context, int minWaitTime, int maxWaitTime) {
+        super(context, minWaitTime, maxWaitTime);
     }
     
     @Override
     protected void performAction() {
-        GameLogger logger = GameLogger.getInstance();
         // Verificar si ya hay el máximo de casillas con monedas (10% del total)
         if (board.getTotalCoins() >= board.getMaxCoins()) {
-            logger.log("Robot de Monedas: Esperando a que se liberen casillas...");
+            logger.logEvent(EventType.COIN_ROBOT_WAITING);
             return;
         }
 
         // Generar cantidad aleatoria de monedas
         int coinAmount = coinValues[random.nextInt(coinValues.length)];
 
-        // Buscar posición libre para colocar monedas
-        int attempts = 0;
-        int maxAttempts = board.getSize() * board.getSize();
-
-        while (attempts < maxAttempts) {
-            int x = random.nextInt(board.getSize());
-            int y = random.nextInt(board.getSize());
-
-            if (board.addCoins(x, y, coinAmount)) {
-                logger.log("Robot de Monedas colocó " + coinAmount + " monedas en (" + x + "," + y + ")");
-                return;
-            }
-            attempts++;
+        // Colocar monedas en una casilla sin jugador elegida al azar (se suman a las que haya)
+        GameBoard.Position pos = board.placeCoinsAtRandom(random, coinAmount);
+        if (pos != null) {
+            logger.logEvent(EventType.COINS_PLACED, 0, pos.getX(), pos.getY(), coinAmount, 0);
+            return;
         }
 
-        logger.log("Robot de Monedas: No encontró casillas libres para colocar monedas");
+        logger.logEvent(EventType.COIN_ROBOT_NO_SPACE);
     }
     
     @Override
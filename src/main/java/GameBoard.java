@@ -1,6 +1,7 @@
 package entregable2;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.*;
 import java.util.*;
 import org.fusesource.jansi.Ansi;
@@ -10,324 +11,810 @@ import org.fusesource.jansi.AnsiConsole;
  * Clase que representa el tablero del juego con sincronización thread-safe
  */
 public class GameBoard {
+    /**
+     * Formas de almacenar las casillas del tablero.
+     * PACKED guarda cada casilla como un long en un arreglo plano (ver {@link CellState});
+     * OBJECTS mantiene el esquema original de un objeto por casilla;
+     * SPARSE crea bloques de casillas solo donde hay algo y no mantiene el índice de
+     * casillas libres, para mapas enormes casi vacíos.
+     */
+    public enum StorageMode { PACKED, OBJECTS, SPARSE }
+
+    /**
+     * Estrategias de sincronización del tablero.
+     * GLOBAL usa un único ReadWriteLock para todo el tablero;
+     * STRIPED divide el tablero en regiones de TILE_SIZE x TILE_SIZE casillas,
+     * cada una protegida por uno de los locks del arreglo de stripes;
+     * LOCK_FREE no bloquea las casillas: cada cambio es un compare-and-set sobre
+     * el estado empaquetado, los contadores se reservan por CAS y el índice de
+     * casillas libres también se actualiza por CAS;
+     * OPTIMISTIC usa un StampedLock global: las consultas de una casilla leen sin
+     * bloquear y validan el stamp, y solo toman el lock de lectura si hubo una escritura.
+     */
+    public enum LockingMode { GLOBAL, STRIPED, LOCK_FREE, OPTIMISTIC }
+
+    private static final int TILE_SIZE = 8;
+
     public String getCellString(int i, int j) {
-        readLock.lock();
-        try {
-            return board[i][j].toString();
-        } finally {
-            readLock.unlock();
-        }
+        return CellState.toString(readState(index(i, j)));
     }
     private final int size;
-    private final Cell[][] board;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-    private final Lock readLock = lock.readLock();
-    private final Lock writeLock = lock.writeLock();
+    private final CellStore cells;
+    private final Lock readLock;
+    private final Lock writeLock;
+    // Solo en modo OPTIMISTIC; readLock y writeLock son vistas de este lock
+    private final StampedLock stampedLock;
+
+    // Índice jugador -> casilla que ocupa, mantenido junto con las casillas
+    private final ConcurrentHashMap<Integer, Integer> playerPositions = new ConcurrentHashMap<>();
+
+    // Índice de casillas completamente libres (un bit por casilla, sin locks).
+    // En almacenamiento SPARSE no se crea (ocuparía memoria proporcional a todo el tablero).
+    private final FreeCellIndex freeIndex;
+
+    // Flujo de cambios de casillas; null hasta que alguien lo pide
+    private volatile BoardChangeFeed changeFeed;
+
+    private final LockingMode lockingMode;
+    private final boolean lockFree;
+
+    // Locks por región (solo en modo STRIPED)
+    private final ReadWriteLock[] stripes;
+    private final int tilesPerRow;
 
     // Estadísticas del tablero
-    private int totalCoins = 0;
-    private int totalLives = 0;
-    private int totalTraps = 0;
+    private final AtomicInteger totalCoins = new AtomicInteger();
+    private final AtomicInteger totalLives = new AtomicInteger();
+    private final AtomicInteger totalTraps = new AtomicInteger();
     private final int maxCoins;
     private final int maxTraps;
     private final int maxLives;
 
     public GameBoard(int size, int maxTraps, int maxLives, int maxCoins) {
+        this(size, maxTraps, maxLives, maxCoins, StorageMode.PACKED);
+    }
+
+    public GameBoard(int size, int maxTraps, int maxLives, int maxCoins, StorageMode storageMode) {
+        this(size, maxTraps, maxLives, maxCoins, storageMode, LockingMode.GLOBAL);
+    }
+
+    public GameBoard(int size, int maxTraps, int maxLives, int maxCoins,
+                     StorageMode storageMode, LockingMode lockingMode) {
         this.size = size;
         this.maxTraps = maxTraps;
         this.maxLives = maxLives;
         this.maxCoins = maxCoins;
-        this.board = new Cell[size][size];
-        initializeBoard();
+        if (lockingMode == LockingMode.LOCK_FREE && storageMode != StorageMode.PACKED) {
+            throw new IllegalArgumentException("El modo LOCK_FREE requiere almacenamiento PACKED");
+        }
+        this.cells = createStore(size, storageMode);
+        this.lockingMode = lockingMode;
+        this.lockFree = lockingMode == LockingMode.LOCK_FREE;
+        if (lockingMode == LockingMode.OPTIMISTIC) {
+            this.stampedLock = new StampedLock();
+            this.readLock = stampedLock.asReadLock();
+            this.writeLock = stampedLock.asWriteLock();
+        } else {
+            ReadWriteLock lock = new ReentrantReadWriteLock();
+            this.stampedLock = null;
+            this.readLock = lock.readLock();
+            this.writeLock = lock.writeLock();
+        }
+        this.tilesPerRow = (size + TILE_SIZE - 1) / TILE_SIZE;
+        this.stripes = lockingMode == LockingMode.STRIPED ? createStripes(tilesPerRow * tilesPerRow) : null;
+        this.freeIndex = storageMode == StorageMode.SPARSE ? null : new FreeCellIndex(size * size);
     }
-    
-    private void initializeBoard() {
-        writeLock.lock();
-        try {
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    board[i][j] = new Cell();
-                }
+
+    private static CellStore createStore(int size, StorageMode storageMode) {
+        switch (storageMode) {
+            case OBJECTS: return new ObjectCellStore(size);
+            case SPARSE: return new ChunkedCellStore(size);
+            case PACKED:
+            default: return new PackedCellStore(size);
+        }
+    }
+
+    private static ReadWriteLock[] createStripes(int tiles) {
+        // Potencia de dos acotada por la cantidad de regiones y de núcleos
+        int wanted = Math.min(tiles, Runtime.getRuntime().availableProcessors() * 16);
+        int count = Integer.highestOneBit(Math.max(1, wanted));
+        if (count < wanted) count <<= 1;
+        ReadWriteLock[] result = new ReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new ReentrantReadWriteLock();
+        }
+        return result;
+    }
+
+    private int index(int x, int y) {
+        return x * size + y;
+    }
+
+    private int stripeOf(int idx) {
+        int tile = (idx / size / TILE_SIZE) * tilesPerRow + (idx % size / TILE_SIZE);
+        return tile & (stripes.length - 1);
+    }
+
+    /**
+     * Lee el estado de una casilla. En modo OPTIMISTIC primero intenta una lectura
+     * optimista y solo bloquea si el stamp fue invalidado por una escritura.
+     */
+    private long readState(int idx) {
+        if (stampedLock != null) {
+            long stamp = stampedLock.tryOptimisticRead();
+            long state = cells.get(idx);
+            if (stampedLock.validate(stamp)) return state;
+            stamp = stampedLock.readLock();
+            try {
+                return cells.get(idx);
+            } finally {
+                stampedLock.unlockRead(stamp);
             }
+        }
+        lockCell(idx, false);
+        try {
+            return cells.get(idx);
         } finally {
+            unlockCell(idx, false);
+        }
+    }
+
+    /**
+     * Bloquea la región de una casilla (o todo el tablero en los modos globales).
+     * En modo LOCK_FREE no bloquea nada.
+     */
+    private void lockCell(int idx, boolean write) {
+        if (lockFree) return;
+        lockFor(idx, write).lock();
+    }
+
+    private void unlockCell(int idx, boolean write) {
+        if (lockFree) return;
+        lockFor(idx, write).unlock();
+    }
+
+    private Lock lockFor(int idx, boolean write) {
+        if (stripes == null) return write ? writeLock : readLock;
+        ReadWriteLock stripe = stripes[stripeOf(idx)];
+        return write ? stripe.writeLock() : stripe.readLock();
+    }
+
+    /**
+     * Bloquea las regiones de dos casillas siempre en orden ascendente de stripe
+     * para evitar deadlocks entre movimientos cruzados.
+     */
+    private void lockPair(int a, int b) {
+        if (lockFree) return;
+        if (stripes == null) {
+            writeLock.lock();
+            return;
+        }
+        int sa = stripeOf(a);
+        int sb = stripeOf(b);
+        stripes[Math.min(sa, sb)].writeLock().lock();
+        if (sa != sb) stripes[Math.max(sa, sb)].writeLock().lock();
+    }
+
+    private void unlockPair(int a, int b) {
+        if (lockFree) return;
+        if (stripes == null) {
             writeLock.unlock();
+            return;
         }
+        int sa = stripeOf(a);
+        int sb = stripeOf(b);
+        if (sa != sb) stripes[Math.max(sa, sb)].writeLock().unlock();
+        stripes[Math.min(sa, sb)].writeLock().unlock();
     }
-    
+
+    private void lockAll(boolean write) {
+        if (lockFree) return;
+        if (stripes == null) {
+            (write ? writeLock : readLock).lock();
+            return;
+        }
+        for (ReadWriteLock stripe : stripes) {
+            (write ? stripe.writeLock() : stripe.readLock()).lock();
+        }
+    }
+
+    private void unlockAll(boolean write) {
+        if (lockFree) return;
+        if (stripes == null) {
+            (write ? writeLock : readLock).unlock();
+            return;
+        }
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            (write ? stripes[i].writeLock() : stripes[i].readLock()).unlock();
+        }
+    }
+
+    /**
+     * Cambia el estado de una casilla si todavía vale {@code expected} y mantiene el
+     * índice de casillas libres. En los modos con lock debe llamarse con el lock de
+     * la casilla tomado (y entonces nunca falla); en LOCK_FREE puede fallar y el
+     * llamador vuelve a leer la casilla.
+     */
+    private boolean update(int idx, long expected, long updated) {
+        if (!cells.compareAndSet(idx, expected, updated)) return false;
+        BoardChangeFeed feed = changeFeed;
+        if (feed != null) {
+            long sequence = feed.claim();
+            feed.publish(sequence, idx, cells.get(idx));
+        }
+        if (freeIndex != null && CellState.isEmpty(expected) != CellState.isEmpty(updated)) {
+            syncFreeIndex(idx);
+        }
+        return true;
+    }
+
+    /**
+     * Ajusta el bit de la casilla en el índice de libres a su estado actual. Después de
+     * escribir el bit se relee la casilla: si otro cambio la vació o la llenó en el
+     * medio se vuelve a ajustar, así el último en escribir el bit siempre vio el estado
+     * más reciente y el índice queda consistente sin lock.
+     */
+    private void syncFreeIndex(int idx) {
+        while (true) {
+            boolean empty = CellState.isEmpty(cells.get(idx));
+            freeIndex.set(idx, empty);
+            if (CellState.isEmpty(cells.get(idx)) == empty) return;
+        }
+    }
+
+    /**
+     * Quita al jugador de la casilla si todavía la ocupa.
+     */
+    private void clearOccupant(int idx, int playerId) {
+        while (true) {
+            long state = cells.get(idx);
+            if (CellState.occupant(state) != playerId) return;
+            if (update(idx, state, CellState.withOccupant(state, 0))) return;
+        }
+    }
+
+    /**
+     * Reserva un lugar en un contador con tope sin bloquear.
+     */
+    private static boolean reserve(AtomicInteger counter, int max) {
+        while (true) {
+            int current = counter.get();
+            if (current >= max) return false;
+            if (counter.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
     public boolean isPositionValid(int x, int y) {
         return x >= 0 && x < size && y >= 0 && y < size;
     }
     
     public boolean isCellFree(int x, int y) {
-        readLock.lock();
-        try {
-            return board[x][y].isFree();
-        } finally {
-            readLock.unlock();
-        }
+        return CellState.isFree(readState(index(x, y)));
     }
     
     public boolean occupyCell(int x, int y, Player player) {
-        writeLock.lock();
-        try {
-            // Eliminar al jugador de cualquier otra casilla antes de ocupar la nueva
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    Cell cell = board[i][j];
-                    if (cell.occupant == player) {
-                        cell.setOccupant(null);
-                    }
+        int id = player.getId();
+        int target = index(x, y);
+        while (true) {
+            Integer previous = playerPositions.get(id);
+            int from = previous != null ? previous : target;
+            lockPair(from, target);
+            try {
+                // Otro hilo movió al jugador entre la lectura del índice y el lock
+                if (!Objects.equals(previous, playerPositions.get(id))) continue;
+                // Eliminar al jugador de su casilla anterior antes de ocupar la nueva
+                if (previous != null) {
+                    clearOccupant(from, id);
+                    playerPositions.remove(id);
                 }
-            }
-            if (board[x][y].isFree()) {
-                board[x][y].setOccupant(player);
+                while (true) {
+                    long state = cells.get(target);
+                    if (!CellState.isFree(state)) return false;
+                    if (update(target, state, CellState.withOccupant(state, id))) break;
+                }
+                playerPositions.put(id, target);
                 return true;
+            } finally {
+                unlockPair(from, target);
             }
-            return false;
-        } finally {
-            writeLock.unlock();
         }
     }
-    
-    public void freeCell(int x, int y) {
-        writeLock.lock();
+
+    /**
+     * Mueve al jugador de una casilla a otra adyacente de forma atómica.
+     * Solo bloquea las regiones de ambas casillas; en modo LOCK_FREE primero
+     * toma la casilla destino por CAS y después libera la de origen.
+     * @return false si la casilla destino está ocupada
+     */
+    public boolean movePlayer(Player player, int fromX, int fromY, int toX, int toY) {
+        int id = player.getId();
+        int from = index(fromX, fromY);
+        int to = index(toX, toY);
+        lockPair(from, to);
         try {
-            board[x][y].setOccupant(null);
+            while (true) {
+                long target = cells.get(to);
+                if (!CellState.isFree(target)) return false;
+                if (update(to, target, CellState.withOccupant(target, id))) break;
+            }
+            clearOccupant(from, id);
+            playerPositions.put(id, to);
+            return true;
         } finally {
-            writeLock.unlock();
+            unlockPair(from, to);
         }
     }
     
-    public boolean addCoins(int x, int y, int amount) {
-        writeLock.lock();
+    public void freeCell(int x, int y) {
+        int idx = index(x, y);
+        lockCell(idx, true);
         try {
-            if (totalCoins < maxCoins && board[x][y].isFree()) {
-                board[x][y].addCoins(amount);
-                totalCoins++;
-                return true;
+            while (true) {
+                long state = cells.get(idx);
+                int occupant = CellState.occupant(state);
+                if (occupant == 0) return;
+                if (update(idx, state, CellState.withOccupant(state, 0))) {
+                    playerPositions.remove(occupant, idx);
+                    return;
+                }
             }
-            return false;
         } finally {
-            writeLock.unlock();
+            unlockCell(idx, true);
         }
     }
-    
-    public boolean addLife(int x, int y) {
-        writeLock.lock();
+
+    /**
+     * Coloca un elemento en una casilla sin jugador respetando el máximo del contador.
+     * El lugar se reserva en el contador antes del CAS y se devuelve si el CAS falla.
+     */
+    private boolean addItem(int x, int y, AtomicInteger counter, int max, int coins, boolean life, boolean trap) {
+        int idx = index(x, y);
+        lockCell(idx, true);
         try {
-            if (totalLives < maxLives && board[x][y].isFree()) {
-                board[x][y].addLife();
-                totalLives++;
-                return true;
+            while (true) {
+                long state = cells.get(idx);
+                if (!CellState.isFree(state) || !reserve(counter, max)) return false;
+                long updated = state;
+                if (coins > 0) updated = CellState.withCoins(updated, CellState.coins(state) + coins);
+                if (life) updated = CellState.withLife(updated, true);
+                if (trap) updated = CellState.withTrap(updated, true);
+                if (update(idx, state, updated)) return true;
+                counter.decrementAndGet();
             }
-            return false;
         } finally {
-            writeLock.unlock();
+            unlockCell(idx, true);
         }
     }
     
+    public boolean addCoins(int x, int y, int amount) {
+        return addItem(x, y, totalCoins, maxCoins, amount, false, false);
+    }
+    
+    public boolean addLife(int x, int y) {
+        return addItem(x, y, totalLives, maxLives, 0, true, false);
+    }
+    
     public boolean addTrap(int x, int y) {
-        writeLock.lock();
-        try {
-            if (totalTraps < maxTraps && board[x][y].isFree()) {
-                board[x][y].addTrap();
-                totalTraps++;
-                return true;
-            }
-            return false;
-        } finally {
-            writeLock.unlock();
-        }
+        return addItem(x, y, totalTraps, maxTraps, 0, false, true);
     }
     
     public int collectCoins(int x, int y) {
-        writeLock.lock();
+        int idx = index(x, y);
+        lockCell(idx, true);
         try {
-            int coins = board[x][y].getCoins();
-            if (coins > 0) {
-                board[x][y].removeCoins();
-                totalCoins--;
-            }
-            return coins;
+            return takeCoins(idx);
         } finally {
-            writeLock.unlock();
+            unlockCell(idx, true);
         }
     }
     
     public boolean collectLife(int x, int y) {
-        writeLock.lock();
+        int idx = index(x, y);
+        lockCell(idx, true);
         try {
-            if (board[x][y].hasLife()) {
-                board[x][y].removeLife();
-                totalLives--;
+            return takeLife(idx);
+        } finally {
+            unlockCell(idx, true);
+        }
+    }
+
+    private int takeCoins(int idx) {
+        while (true) {
+            long state = cells.get(idx);
+            int coins = CellState.coins(state);
+            if (coins == 0) return 0;
+            if (update(idx, state, CellState.withCoins(state, 0))) {
+                totalCoins.decrementAndGet();
+                return coins;
+            }
+        }
+    }
+
+    private boolean takeLife(int idx) {
+        while (true) {
+            long state = cells.get(idx);
+            if (!CellState.hasLife(state)) return false;
+            if (update(idx, state, CellState.withLife(state, false))) {
+                totalLives.decrementAndGet();
                 return true;
             }
-            return false;
-        } finally {
+        }
+    }
+
+    /**
+     * Valida y confirma en una sola sección crítica todos los pasos de una tirada:
+     * avanza {@code steps} casillas en la dirección (dx, dy) desde la posición del
+     * jugador en el tablero, frenando en el borde o ante una casilla ocupada, recoge
+     * monedas y vidas y descuenta las trampas. Si las vidas llegan a 0 el jugador
+     * queda en esa casilla y el recorrido termina.
+     *
+     * En modo STRIPED se bloquean las regiones de todo el recorrido en orden
+     * ascendente; en LOCK_FREE cada paso se confirma por CAS.
+     *
+     * @param fromX posición a usar si el jugador todavía no está en el tablero
+     * @param steps pasos de la tirada; no puede ser negativo
+     * @param lives vidas del jugador antes de moverse
+     */
+    public MoveResult commitMove(Player player, int fromX, int fromY, int dx, int dy, int steps, int lives) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("Cantidad de pasos inválida: " + steps);
+        }
+        int id = player.getId();
+        while (true) {
+            Integer indexed = playerPositions.get(id);
+            int startX = indexed != null ? indexed / size : fromX;
+            int startY = indexed != null ? indexed % size : fromY;
+            int[] pathStripes = lockPath(startX, startY, dx, dy, steps);
+            try {
+                // Otro hilo movió al jugador entre la lectura del índice y el lock
+                if (!Objects.equals(indexed, playerPositions.get(id))) continue;
+                return applyMove(id, startX, startY, dx, dy, steps, lives);
+            } finally {
+                unlockPath(pathStripes);
+            }
+        }
+    }
+
+    private MoveResult applyMove(int id, int startX, int startY, int dx, int dy, int steps, int lives) {
+        int[] coinsPerStep = new int[steps];
+        boolean[] lifeSteps = new boolean[steps];
+        boolean[] trapSteps = new boolean[steps];
+        int taken = 0;
+        boolean dead = false;
+        int x = startX;
+        int y = startY;
+        for (int step = 0; step < steps; step++) {
+            int nextX = x + dx;
+            int nextY = y + dy;
+            // Limitar a los bordes
+            if (!isPositionValid(nextX, nextY)) break;
+            int from = index(x, y);
+            int to = index(nextX, nextY);
+            // No puede pasar por casillas ocupadas
+            boolean moved = false;
+            while (true) {
+                long target = cells.get(to);
+                if (!CellState.isFree(target)) break;
+                if (update(to, target, CellState.withOccupant(target, id))) {
+                    moved = true;
+                    break;
+                }
+            }
+            if (!moved) break;
+            clearOccupant(from, id);
+            playerPositions.put(id, to);
+            x = nextX;
+            y = nextY;
+            taken++;
+            coinsPerStep[step] = takeCoins(to);
+            if (takeLife(to)) {
+                lifeSteps[step] = true;
+                lives++;
+            }
+            if (CellState.hasTrap(cells.get(to))) {
+                trapSteps[step] = true;
+                lives--;
+                if (lives <= 0) {
+                    dead = true;
+                    break;
+                }
+            }
+        }
+        return new MoveResult(startX, startY, dx, dy, taken, coinsPerStep, lifeSteps, trapSteps, lives, dead);
+    }
+
+    /**
+     * Bloquea lo necesario para confirmar un recorrido. En modo STRIPED devuelve las
+     * regiones bloqueadas (ordenadas, sin repetir) para liberarlas después.
+     */
+    private int[] lockPath(int startX, int startY, int dx, int dy, int steps) {
+        if (lockFree) return null;
+        if (stripes == null) {
+            writeLock.lock();
+            return null;
+        }
+        int[] path = new int[steps + 1];
+        int count = 0;
+        int x = startX;
+        int y = startY;
+        for (int step = 0; step <= steps && isPositionValid(x, y); step++) {
+            path[count++] = stripeOf(index(x, y));
+            x += dx;
+            y += dy;
+        }
+        Arrays.sort(path, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || path[unique - 1] != path[i]) path[unique++] = path[i];
+        }
+        int[] locked = Arrays.copyOf(path, unique);
+        for (int stripe : locked) {
+            stripes[stripe].writeLock().lock();
+        }
+        return locked;
+    }
+
+    private void unlockPath(int[] locked) {
+        if (lockFree) return;
+        if (locked == null) {
             writeLock.unlock();
+            return;
+        }
+        for (int i = locked.length - 1; i >= 0; i--) {
+            stripes[locked[i]].writeLock().unlock();
         }
     }
     
+    /**
+     * Coloca monedas en una casilla sin jugador elegida al azar, con la misma regla que
+     * {@link #addCoins}: pueden caer sobre una vida, una trampa u otras monedas y en ese
+     * caso se suman. Como casi todas las casillas cumplen, se prueban casillas al azar.
+     * @return la posición usada, o null si no hay lugar o se alcanzó el máximo
+     */
+    public Position placeCoinsAtRandom(Random random, int amount) {
+        for (int attempt = 0; attempt < 64; attempt++) {
+            if (totalCoins.get() >= maxCoins) return null;
+            int idx = random.nextInt(size * size);
+            if (addItem(idx / size, idx % size, totalCoins, maxCoins, amount, false, false)) {
+                return new Position(idx / size, idx % size);
+            }
+        }
+        return null;
+    }
+
+    public Position placeLifeAtRandom(Random random) {
+        return placeAtRandom(random, totalLives, maxLives, CellState.withLife(CellState.EMPTY, true));
+    }
+
+    public Position placeTrapAtRandom(Random random) {
+        return placeAtRandom(random, totalTraps, maxTraps, CellState.withTrap(CellState.EMPTY, true));
+    }
+
+    /**
+     * Elige una casilla completamente libre al azar (uniforme) y coloca el elemento.
+     * La elección usa el select del índice de casillas libres; si otro hilo ocupó la
+     * casilla entre la elección y el lock se vuelve a intentar. En almacenamiento
+     * SPARSE se prueban casillas al azar, ya que casi todo el tablero está vacío.
+     * @return la posición usada, o null si no hay lugar o se alcanzó el máximo
+     */
+    private Position placeAtRandom(Random random, AtomicInteger counter, int max, long item) {
+        for (int attempt = 0; attempt < 64; attempt++) {
+            if (counter.get() >= max) return null;
+            if (getFreeCellCount() == 0) return null;
+            int idx = freeIndex == null ? random.nextInt(size * size) : freeIndex.random(random);
+            if (idx < 0) continue;
+            lockCell(idx, true);
+            try {
+                if (!CellState.isEmpty(cells.get(idx))) continue;
+                if (!reserve(counter, max)) return null;
+                if (update(idx, CellState.EMPTY, item)) {
+                    return new Position(idx / size, idx % size);
+                }
+                counter.decrementAndGet();
+            } finally {
+                unlockCell(idx, true);
+            }
+        }
+        return null;
+    }
+
+    public int getFreeCellCount() {
+        if (freeIndex == null) {
+            return (int) (size * size - cells.nonEmptyCount());
+        }
+        return freeIndex.count();
+    }
+    
     public boolean hasTrap(int x, int y) {
-        readLock.lock();
+        return CellState.hasTrap(readState(index(x, y)));
+    }
+    
+    /**
+     * Activa (la primera vez) y devuelve el flujo de cambios de casillas.
+     * Los cambios anteriores a la activación no se publican.
+     */
+    public BoardChangeFeed enableChangeFeed(int capacity) {
+        BoardChangeFeed feed = changeFeed;
+        if (feed == null) {
+            synchronized (this) {
+                feed = changeFeed;
+                if (feed == null) {
+                    feed = new BoardChangeFeed(size, capacity);
+                    changeFeed = feed;
+                }
+            }
+        }
+        return feed;
+    }
+
+    public BoardChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * Captura una instantánea inmutable del tablero. Solo se mantienen los locks de
+     * lectura mientras se copian las casillas.
+     */
+    public BoardSnapshot snapshot() {
+        lockAll(false);
         try {
-            return board[x][y].hasTrap();
+            BoardChangeFeed feed = changeFeed;
+            return new BoardSnapshot(size, cells.copy(), stats(),
+                feed != null ? feed.getLastSequence() : 0);
         } finally {
-            readLock.unlock();
+            unlockAll(false);
         }
     }
-    
+
+    /**
+     * Contadores y posiciones de los jugadores, sin copiar las casillas ni tomar sus
+     * locks. Alcanza para los paneles de estadísticas que se refrescan seguido.
+     */
+    public BoardStats stats() {
+        return new BoardStats(totalCoins.get(), totalLives.get(), totalTraps.get(),
+            maxCoins, maxLives, maxTraps, getPlayerPositions());
+    }
+
     public void display(List<Player> players) {
-        readLock.lock();
-        try {
-            AnsiConsole.systemInstall();
-            String horizontalBorder = Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╔").reset().toString();
-            for (int k = 0; k < size; k++) horizontalBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("═══").reset();
-            horizontalBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╗").reset();
-            System.out.println("\n" + horizontalBorder);
-            for (int i = 0; i < size; i++) {
-                StringBuilder row = new StringBuilder();
-                row.append(Ansi.ansi().fgBright(Ansi.Color.WHITE).a("║").reset());
-                for (int j = 0; j < size; j++) {
-                    String cellStr = board[i][j].toString();
-                    Ansi ansiCell = Ansi.ansi();
-                    if (cellStr.startsWith("P")) {
-                        ansiCell.bg(Ansi.Color.BLUE).fgBright(Ansi.Color.WHITE).a(String.format("%3s", cellStr)).reset();
-                    } else if (cellStr.startsWith("C")) {
-                        ansiCell.bg(Ansi.Color.YELLOW).fgBright(Ansi.Color.BLACK).a(String.format("%3s", cellStr)).reset();
-                    } else if (cellStr.equals("L")) {
-                        ansiCell.bg(Ansi.Color.GREEN).fgBright(Ansi.Color.BLACK).a(String.format("%3s", cellStr)).reset();
-                    } else if (cellStr.equals("T")) {
-                        ansiCell.bg(Ansi.Color.RED).fgBright(Ansi.Color.WHITE).a(String.format("%3s", cellStr)).reset();
-                    } else {
-                        ansiCell.bg(Ansi.Color.BLACK).fgBright(Ansi.Color.WHITE).a(String.format("%3s", cellStr)).reset();
-                    }
-                    row.append(ansiCell);
+        // Las casillas se leen de a una mientras se imprimen, sin copiar todo el tablero
+        // ni retener los locks durante la salida
+        display(null, stats(), players);
+    }
+
+    public void display(BoardSnapshot snap, List<Player> players) {
+        display(snap, snap.getStats(), players);
+    }
+
+    private void display(BoardSnapshot snap, BoardStats stats, List<Player> players) {
+        AnsiConsole.systemInstall();
+        String horizontalBorder = Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╔").reset().toString();
+        for (int k = 0; k < size; k++) horizontalBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("═══").reset();
+        horizontalBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╗").reset();
+        System.out.println("\n" + horizontalBorder);
+        for (int i = 0; i < size; i++) {
+            StringBuilder row = new StringBuilder();
+            row.append(Ansi.ansi().fgBright(Ansi.Color.WHITE).a("║").reset());
+            for (int j = 0; j < size; j++) {
+                String cellStr = snap != null ? snap.getCellString(i, j) : getCellString(i, j);
+                Ansi ansiCell = Ansi.ansi();
+                if (cellStr.startsWith("P")) {
+                    ansiCell.bg(Ansi.Color.BLUE).fgBright(Ansi.Color.WHITE).a(String.format("%3s", cellStr)).reset();
+                } else if (cellStr.startsWith("C")) {
+                    ansiCell.bg(Ansi.Color.YELLOW).fgBright(Ansi.Color.BLACK).a(String.format("%3s", cellStr)).reset();
+                } else if (cellStr.equals("L")) {
+                    ansiCell.bg(Ansi.Color.GREEN).fgBright(Ansi.Color.BLACK).a(String.format("%3s", cellStr)).reset();
+                } else if (cellStr.equals("T")) {
+                    ansiCell.bg(Ansi.Color.RED).fgBright(Ansi.Color.WHITE).a(String.format("%3s", cellStr)).reset();
+                } else {
+                    ansiCell.bg(Ansi.Color.BLACK).fgBright(Ansi.Color.WHITE).a(String.format("%3s", cellStr)).reset();
                 }
-                row.append(Ansi.ansi().fgBright(Ansi.Color.WHITE).a("║").reset());
-                System.out.println(row);
+                row.append(ansiCell);
             }
-            String bottomBorder = Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╚").reset().toString();
-            for (int k = 0; k < size; k++) bottomBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("═══").reset();
-            bottomBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╝").reset();
-            System.out.println(bottomBorder);
-
-            System.out.println("Leyenda: " + Ansi.ansi().fg(Ansi.Color.BLUE).a("P=Jugador").reset() + ", "
-                + Ansi.ansi().fg(Ansi.Color.YELLOW).a("C=Monedas").reset() + ", "
-                + Ansi.ansi().fg(Ansi.Color.GREEN).a("L=Vida").reset() + ", "
-                + Ansi.ansi().fg(Ansi.Color.RED).a("T=Trampa").reset() + ", "
-                + Ansi.ansi().fg(Ansi.Color.WHITE).a(".=Libre").reset());
-            System.out.printf("%sEstadísticas:%s Monedas: %s%d%s/%s%d%s, Vidas: %s%d%s, Trampas: %s%d%s/%s%d%s\n",
-                Ansi.ansi().fg(Ansi.Color.CYAN), Ansi.ansi().reset(),
-                Ansi.ansi().fg(Ansi.Color.YELLOW), totalCoins, Ansi.ansi().reset(),
-                Ansi.ansi().fg(Ansi.Color.YELLOW), maxCoins, Ansi.ansi().reset(),
-                Ansi.ansi().fg(Ansi.Color.GREEN), totalLives, Ansi.ansi().reset(),
-                Ansi.ansi().fg(Ansi.Color.RED), totalTraps, Ansi.ansi().reset(),
-                Ansi.ansi().fg(Ansi.Color.RED), maxTraps, Ansi.ansi().reset());
-            // Estadísticas individuales de jugadores
-            System.out.println(Ansi.ansi().fgBright(Ansi.Color.MAGENTA).a("\n--- Jugadores ---").reset());
-            for (Player player : players) {
-                String estado = player.isAlive() ? "VIVO" : "MUERTO";
-                Ansi color = player.isAlive() ? Ansi.ansi().fg(Ansi.Color.BLUE) : Ansi.ansi().fg(Ansi.Color.RED);
-                System.out.println(color.a("Jugador " + player.getId() + ": ")
-                    .reset().a("Monedas: ")
-                    .fg(Ansi.Color.YELLOW).a(player.getCoins()).reset()
-                    .a(", Vidas: ")
-                    .fg(Ansi.Color.GREEN).a(player.getLives()).reset()
-                    .a(", Estado: ")
-                    .fg(player.isAlive() ? Ansi.Color.GREEN : Ansi.Color.RED).a(estado).reset());
-            }
-            AnsiConsole.systemUninstall();
-        } finally {
-            readLock.unlock();
+            row.append(Ansi.ansi().fgBright(Ansi.Color.WHITE).a("║").reset());
+            System.out.println(row);
         }
+        String bottomBorder = Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╚").reset().toString();
+        for (int k = 0; k < size; k++) bottomBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("═══").reset();
+        bottomBorder += Ansi.ansi().fgBright(Ansi.Color.WHITE).a("╝").reset();
+        System.out.println(bottomBorder);
+
+        System.out.println("Leyenda: " + Ansi.ansi().fg(Ansi.Color.BLUE).a("P=Jugador").reset() + ", "
+            + Ansi.ansi().fg(Ansi.Color.YELLOW).a("C=Monedas").reset() + ", "
+            + Ansi.ansi().fg(Ansi.Color.GREEN).a("L=Vida").reset() + ", "
+            + Ansi.ansi().fg(Ansi.Color.RED).a("T=Trampa").reset() + ", "
+            + Ansi.ansi().fg(Ansi.Color.WHITE).a(".=Libre").reset());
+        System.out.printf("%sEstadísticas:%s Monedas: %s%d%s/%s%d%s, Vidas: %s%d%s, Trampas: %s%d%s/%s%d%s\n",
+            Ansi.ansi().fg(Ansi.Color.CYAN), Ansi.ansi().reset(),
+            Ansi.ansi().fg(Ansi.Color.YELLOW), stats.getTotalCoins(), Ansi.ansi().reset(),
+            Ansi.ansi().fg(Ansi.Color.YELLOW), maxCoins, Ansi.ansi().reset(),
+            Ansi.ansi().fg(Ansi.Color.GREEN), stats.getTotalLives(), Ansi.ansi().reset(),
+            Ansi.ansi().fg(Ansi.Color.RED), stats.getTotalTraps(), Ansi.ansi().reset(),
+            Ansi.ansi().fg(Ansi.Color.RED), maxTraps, Ansi.ansi().reset());
+        // Estadísticas individuales de jugadores
+        System.out.println(Ansi.ansi().fgBright(Ansi.Color.MAGENTA).a("\n--- Jugadores ---").reset());
+        for (Player player : players) {
+            String estado = player.isAlive() ? "VIVO" : "MUERTO";
+            Ansi color = player.isAlive() ? Ansi.ansi().fg(Ansi.Color.BLUE) : Ansi.ansi().fg(Ansi.Color.RED);
+            System.out.println(color.a("Jugador " + player.getId() + ": ")
+                .reset().a("Monedas: ")
+                .fg(Ansi.Color.YELLOW).a(player.getCoins()).reset()
+                .a(", Vidas: ")
+                .fg(Ansi.Color.GREEN).a(player.getLives()).reset()
+                .a(", Estado: ")
+                .fg(player.isAlive() ? Ansi.Color.GREEN : Ansi.Color.RED).a(estado).reset());
+        }
+        AnsiConsole.systemUninstall();
     }
     
+    /**
+     * Posición actual de un jugador según el índice del tablero, o null si no está en él.
+     */
+    public Position getPlayerPosition(int playerId) {
+        Integer idx = playerPositions.get(playerId);
+        return idx != null ? new Position(idx / size, idx % size) : null;
+    }
+
+    /**
+     * Posiciones de todos los jugadores en el tablero, sin recorrer las casillas.
+     */
+    public Map<Integer, Position> getPlayerPositions() {
+        Map<Integer, Position> result = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> e : playerPositions.entrySet()) {
+            int idx = e.getValue();
+            result.put(e.getKey(), new Position(idx / size, idx % size));
+        }
+        return result;
+    }
+
     public int getSize() { return size; }
     public int getMaxCoins() { return maxCoins; }
     public int getMaxTraps() { return maxTraps; }
     public int getMaxLives() { return maxLives; }
-    public int getTotalCoins() { return totalCoins; }
-    public int getTotalLives() { return totalLives; }
-    public int getTotalTraps() { return totalTraps; }
+    public int getTotalCoins() { return totalCoins.get(); }
+    public int getTotalLives() { return totalLives.get(); }
+    public int getTotalTraps() { return totalTraps.get(); }
+    public LockingMode getLockingMode() {
+        return lockingMode;
+    }
+    /**
+     * Lock global del tablero. Solo protege las operaciones en modos GLOBAL y
+     * OPTIMISTIC; en los otros modos usar {@link #movePlayer} para movimientos atómicos.
+     *
+     * En modo OPTIMISTIC es la vista de escritura de un {@link StampedLock}, que no es
+     * reentrante: quien lo tenga tomado no debe llamar a otros métodos del tablero
+     * (escrituras y lecturas no optimistas usan el mismo lock) porque el hilo se bloquea
+     * a sí mismo.
+     */
     public Lock getWriteLock() {
         return writeLock;
     }
-    
+
+    /**
+     * Bytes de heap estimados que ocupan las casillas del tablero y el índice de libres.
+     */
+    public long getStorageFootprintBytes() {
+        if (freeIndex == null) return cells.footprintBytes();
+        return cells.footprintBytes() + freeIndex.footprintBytes();
+    }
+
     /**
-     * Clase interna que representa una casilla del tablero
+     * Coordenadas inmutables de una casilla
      */
-    private static class Cell {
-        private Player occupant;
-        private int coins;
-        private boolean hasLife;
-        private boolean hasTrap;
-        
-        public Cell() {
-            this.occupant = null;
-            this.coins = 0;
-            this.hasLife = false;
-            this.hasTrap = false;
-        }
-        
-        // Una casilla está completamente libre si no tiene jugador, ni vida, ni monedas, ni trampa
-        public boolean isCompletelyFree() {
-            return occupant == null && coins == 0 && !hasLife && !hasTrap;
-        }
-        // Para compatibilidad, si hay código que usa isFree() para movimiento, dejamos:
-        public boolean isFree() {
-            return occupant == null;
-        }
-        
-        public void setOccupant(Player player) {
-            this.occupant = player;
-        }
-        
-        public void addCoins(int amount) {
-            this.coins += amount;
-        }
-        
-        public int getCoins() {
-            return coins;
-        }
-        
-        public void removeCoins() {
-            this.coins = 0;
-        }
-        
-        public void addLife() {
-            this.hasLife = true;
-        }
-        
-        public boolean hasLife() {
-            return hasLife;
-        }
-        
-        public void removeLife() {
-            this.hasLife = false;
-        }
-        
-        public void addTrap() {
-            this.hasTrap = true;
-        }
-        
-        public boolean hasTrap() {
-            return hasTrap;
-        }
-        
+    public static final class Position {
+        private final int x;
+        private final int y;
+
+        public Position(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public int getX() { return x; }
+        public int getY() { return y; }
+
         @Override
         public String toString() {
-            if (occupant != null) {
-                return "P" + occupant.getId();
-            } else if (coins > 0) {
-                return "C" + coins;
-            } else if (hasLife) {
-                return "L";
-            } else if (hasTrap) {
-                return "T";
-            } else {
-                return ".";
-            }
+            return "(" + x + "," + y + ")";
         }
     }
 }
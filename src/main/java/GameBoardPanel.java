@@ -2,14 +2,46 @@ package entregable2;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Panel gráfico para mostrar el tablero del juego
+ * Panel gráfico para mostrar el tablero del juego.
+ *
+ * El tablero se dibuja en una imagen propia con los sprites de {@link BoardTileAtlas}.
+ * Después del primer dibujo solo se vuelven a dibujar las casillas que cambiaron,
+ * leídas del {@link BoardChangeFeed} del tablero, y solo esas se repintan en pantalla.
+ * El dibujo completo se repite al cambiar el tamaño del panel o el tablero, o si el
+ * panel se atrasó más que la capacidad del flujo de cambios.
  */
 public class GameBoardPanel extends JPanel {
-    private GameBoard board;
-    private List<Player> players;
+    private static final int FEED_CAPACITY = 1 << 14;
+
+    private volatile GameBoard board;
+    private volatile List<Player> players;
+    private final AtomicBoolean updatePending = new AtomicBoolean();
+
+    // Solo en el hilo de Swing
+    private BoardTileAtlas atlas;
+    private BufferedImage frame;
+    private Graphics2D frameGraphics;
+    private GameBoard frameBoard;
+    private BoardChangeFeed feed;
+    private long lastSequence;
+    private long[] shown;
+    private boolean stale = true;
+    private final BoardChangeFeed.Listener changes = new BoardChangeFeed.Listener() {
+        @Override
+        public void onChange(long sequence, int x, int y, long state) {
+            drawChangedCell(x, y, state);
+        }
+
+        @Override
+        public void onGap(long fromSequence, long toSequence) {
+            stale = true;
+        }
+    };
 
     public GameBoardPanel(GameBoard board, List<Player> players) {
         this.board = board;
@@ -17,66 +49,97 @@ public class GameBoardPanel extends JPanel {
         // No setPreferredSize: el tamaño será dinámico
     }
 
+    /**
+     * Avisa que el tablero cambió. Se puede llamar desde cualquier hilo: los avisos que
+     * llegan antes de que Swing procese el anterior se juntan en una sola actualización.
+     */
     public void updateBoard(GameBoard board, List<Player> players) {
         this.board = board;
         this.players = players;
-        repaint();
+        if (updatePending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                updatePending.set(false);
+                if (syncFrame()) repaint();
+            });
+        }
+    }
+
+    /** Fuerza el dibujo completo en el próximo repintado. */
+    void invalidateFrame() {
+        stale = true;
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        int size = board.getSize();
+        syncFrame();
+        if (frame != null) {
+            g.drawImage(frame, 0, 0, null);
+        }
+    }
+
+    /**
+     * Lleva la imagen del tablero al estado actual: completa si hace falta, o solo con
+     * los cambios publicados desde la última vez.
+     * @return true si se volvió a dibujar completa
+     */
+    private boolean syncFrame() {
+        GameBoard current = board;
+        int size = current.getSize();
         int cellSize = Math.max(10, Math.min(getWidth() / size, getHeight() / size));
         if (cellSize < 10 || getWidth() < size || getHeight() < size) {
             // No hay espacio suficiente para dibujar el tablero
-            return;
+            frame = null;
+            return false;
+        }
+        if (!stale && frame != null && current == frameBoard && cellSize == atlas.getCellSize()) {
+            lastSequence = feed.poll(lastSequence, changes, Integer.MAX_VALUE);
+            if (!stale) return false;
+        }
+        redrawAll(current, cellSize);
+        return true;
+    }
+
+    private void redrawAll(GameBoard current, int cellSize) {
+        int size = current.getSize();
+        feed = current.enableChangeFeed(FEED_CAPACITY);
+        // Una sola captura del tablero; los cambios posteriores llegan por el flujo
+        BoardSnapshot snap = current.snapshot();
+        lastSequence = snap.getSequence();
+        if (atlas == null || atlas.getCellSize() != cellSize) {
+            atlas = new BoardTileAtlas(cellSize);
+        }
+        int pixels = size * cellSize + 1;
+        if (frame == null || frame.getWidth() != pixels) {
+            if (frameGraphics != null) frameGraphics.dispose();
+            frame = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+            frameGraphics = frame.createGraphics();
+        }
+        if (shown == null || shown.length != size * size) {
+            shown = new long[size * size];
         }
         for (int i = 0; i < size; i++) {
             for (int j = 0; j < size; j++) {
-                int x = j * cellSize;
-                int y = i * cellSize;
-                String cellStr = board.getCellString(i, j);
-                // Fondo base
-                g.setColor(Color.WHITE);
-                g.fillRect(x, y, cellSize, cellSize);
-                g.setColor(Color.GRAY);
-                g.drawRect(x, y, cellSize, cellSize);
-
-                // Dibujar contenido intuitivo
-                if (cellStr.startsWith("P")) {
-                    int playerId = 1;
-                    try { playerId = Integer.parseInt(cellStr.substring(1)); } catch(Exception e) {}
-                    Color[] playerColors = {Color.BLUE, Color.MAGENTA, Color.ORANGE, Color.CYAN, Color.PINK};
-                    g.setColor(playerColors[(playerId-1)%playerColors.length]);
-                    g.fillOval(x+cellSize/10, y+cellSize/10, cellSize*8/10, cellSize*8/10);
-                    g.setColor(Color.WHITE);
-                    g.setFont(new Font("Arial", Font.BOLD, Math.max(12, cellSize/3)));
-                    g.drawString(""+playerId, x+cellSize/2-5, y+cellSize/2+6);
-                } else if (cellStr.startsWith("C")) {
-                    g.setColor(new Color(212, 175, 55));
-                    g.fillOval(x+cellSize/4, y+cellSize/4, cellSize/2, cellSize/2);
-                    g.setColor(Color.BLACK);
-                    g.setFont(new Font("Arial", Font.BOLD, Math.max(10, cellSize/4)));
-                    String amount = cellStr.substring(1);
-                    g.drawString(amount, x+cellSize/2-6, y+cellSize/2+5);
-                } else if (cellStr.equals("L")) {
-                    g.setColor(new Color(34, 177, 76));
-                    int[] xPoints = {x+cellSize/2, x+cellSize/2-cellSize/5, x+cellSize/2, x+cellSize/2+cellSize/5};
-                    int[] yPoints = {y+cellSize/2+cellSize/5, y+cellSize/2-cellSize/10, y+cellSize/2-cellSize/4, y+cellSize/2-cellSize/10};
-                    g.fillPolygon(xPoints, yPoints, 4);
-                    g.fillOval(x+cellSize/2-cellSize/5, y+cellSize/2-cellSize/4, cellSize/5, cellSize/5);
-                    g.fillOval(x+cellSize/2, y+cellSize/2-cellSize/4, cellSize/5, cellSize/5);
-                } else if (cellStr.equals("T")) {
-                    g.setColor(Color.RED);
-                    int[] xPoints = {x+cellSize/2, x+cellSize/5, x+cellSize-cellSize/5};
-                    int[] yPoints = {y+cellSize/5, y+cellSize-cellSize/5, y+cellSize-cellSize/5};
-                    g.fillPolygon(xPoints, yPoints, 3);
-                    g.setColor(Color.BLACK);
-                    g.setFont(new Font("Arial", Font.BOLD, Math.max(10, cellSize/4)));
-                    g.drawString("!", x+cellSize/2-3, y+cellSize-cellSize/4);
-                }
+                long state = snap.state(i, j);
+                shown[i * size + j] = state;
+                atlas.draw(frameGraphics, state, j * cellSize, i * cellSize);
             }
         }
+        // Borde derecho e inferior del tablero, que ninguna casilla dibuja
+        frameGraphics.setColor(Color.GRAY);
+        frameGraphics.drawLine(pixels - 1, 0, pixels - 1, pixels - 1);
+        frameGraphics.drawLine(0, pixels - 1, pixels - 1, pixels - 1);
+        frameBoard = current;
+        stale = false;
+    }
+
+    private void drawChangedCell(int x, int y, long state) {
+        int size = frameBoard.getSize();
+        int cell = x * size + y;
+        if (shown[cell] == state) return;
+        shown[cell] = state;
+        int cellSize = atlas.getCellSize();
+        atlas.draw(frameGraphics, state, y * cellSize, x * cellSize);
+        repaint(y * cellSize, x * cellSize, cellSize + 1, cellSize + 1);
     }
 }
@@ -0,0 +1,115 @@
+package entregable2;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Todo lo que comparten las entidades de una misma partida: tablero, logger,
+ * fuente de números aleatorios y los ejecutores donde corren. {@link ConcurrentGame}
+ * se lo pasa a cada jugador y robot al crearlo, así ninguno depende de estado global
+ * y una misma JVM puede alojar muchas partidas aisladas.
+ *
+ * Los pools pueden ser propios de la partida ({@link #create}) o compartidos entre
+ * partidas ({@link #shared}, {@link #simulated}); en el segundo caso la partida no
+ * los cierra al terminar.
+ */
+public final class GameContext {
+    private final GameBoard board;
+    private final GameLogger logger;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    // Solo en modo SIMULATED; reemplaza las esperas reales de las entidades
+    private final SimulationScheduler simulation;
+    private final boolean ownsExecutors;
+    private final long seed;
+    private final AtomicLong nextStream = new AtomicLong();
+
+    private GameContext(GameBoard board, GameLogger logger, ExecutorService executor,
+                        ScheduledExecutorService scheduler, SimulationScheduler simulation,
+                        boolean ownsExecutors, long seed) {
+        this.board = board;
+        this.logger = logger;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.simulation = simulation;
+        this.ownsExecutors = ownsExecutors;
+        this.seed = seed;
+    }
+
+    /**
+     * Contexto con pools propios según el modo de ejecución, que se cierran en
+     * {@link ConcurrentGame#shutdown()}.
+     */
+    public static GameContext create(GameBoard board, GameLogger logger,
+                                     ConcurrentGame.ExecutionMode executionMode, long seed) {
+        SimulationScheduler simulation =
+            executionMode == ConcurrentGame.ExecutionMode.SIMULATED ? new SimulationScheduler() : null;
+        return new GameContext(board, logger, createExecutor(executionMode),
+            Executors.newScheduledThreadPool(2), simulation, true, seed);
+    }
+
+    /**
+     * Contexto de una partida en tiempo real que usa pools compartidos con otras partidas.
+     */
+    public static GameContext shared(GameBoard board, GameLogger logger, ExecutorService executor,
+                                     ScheduledExecutorService scheduler, long seed) {
+        return new GameContext(board, logger, executor, scheduler, null, false, seed);
+    }
+
+    /**
+     * Contexto de una partida simulada. La simulación corre en {@code executor}, que
+     * puede ser null si la partida se juega con {@link ConcurrentGame#runSimulation()}.
+     * Con la misma semilla la partida se repite igual.
+     */
+    public static GameContext simulated(GameBoard board, GameLogger logger, ExecutorService executor, long seed) {
+        return new GameContext(board, logger, executor, null, new SimulationScheduler(), false, seed);
+    }
+
+    private static ExecutorService createExecutor(ConcurrentGame.ExecutionMode executionMode) {
+        if (executionMode == ConcurrentGame.ExecutionMode.SIMULATED) {
+            return Executors.newSingleThreadExecutor();
+        }
+        if (executionMode == ConcurrentGame.ExecutionMode.VIRTUAL_THREADS) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Generador propio para una entidad. Cada llamada devuelve una secuencia distinta
+     * derivada de la semilla de la partida, así las entidades no comparten un
+     * {@code Random} entre hilos.
+     */
+    public Random newRandom() {
+        return new Random(seed + nextStream.getAndIncrement() * 0x9E3779B97F4A7C15L);
+    }
+
+    public GameBoard getBoard() { return board; }
+    public GameLogger getLogger() { return logger; }
+    public ExecutorService getExecutor() { return executor; }
+    public ScheduledExecutorService getScheduler() { return scheduler; }
+    /** Planificador de eventos discretos, o null si la partida corre en tiempo real. */
+    public SimulationScheduler getSimulation() { return simulation; }
+    public boolean isSimulated() { return simulation != null; }
+    public long getSeed() { return seed; }
+
+    /**
+     * Cierra los pools propios de la partida, esperando hasta 5 segundos a cada uno.
+     * Los pools compartidos quedan abiertos.
+     */
+    void shutdownExecutors() throws InterruptedException {
+        if (!ownsExecutors) return;
+        executor.shutdown();
+        scheduler.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+            scheduler.shutdownNow();
+        }
+    }
+}
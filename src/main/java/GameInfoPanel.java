@@ -1,19 +1,34 @@
 package entregable2;
 
 import javax.swing.*;
-import javax.swing.text.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Panel para mostrar estadísticas y logs del juego
  */
 public class GameInfoPanel extends JPanel {
-    private JTextPane playerLogArea;
-    private JTextPane robotLogArea;
-    private JTextPane eventLogArea;
+    private static final Font LOG_FONT = new Font("Monospaced", Font.PLAIN, 13);
+    // Ancho fijo de fila: las líneas largas se ven con la barra horizontal
+    private static final int LOG_ROW_WIDTH = 900;
+    // Líneas que se conservan en memoria, como el historial del logger
+    private static final int MAX_ENTRIES = 8192;
+
+    // Todas las líneas recibidas, ya clasificadas; los filtros arman las listas desde acá
+    private final List<LogEntry> entries = new ArrayList<>();
+    private final List<String> pending = new ArrayList<>();
+    private final List<GameLogger.Kind> pendingKinds = new ArrayList<>();
+    // Solo para appendCategorizedLogs, que recibe líneas sin su clase
+    private final LogLineParser parser = new LogLineParser();
+    private long lastSequence;
+    private final LogListModel playerModel = new LogListModel();
+    private final LogListModel robotModel = new LogListModel();
+    private final LogListModel eventModel = new LogListModel();
+    private JList<LogEntry> playerList;
+    private JList<LogEntry> robotList;
+    private JList<LogEntry> eventList;
     private JTabbedPane tabbedPane;
     private JTextArea statsArea;
     private JCheckBox filterMov;
@@ -26,17 +41,17 @@ public class GameInfoPanel extends JPanel {
     public GameInfoPanel() {
         setLayout(new BorderLayout());
         tabbedPane = new JTabbedPane();
-        playerLogArea = createLogPane();
-        robotLogArea = createLogPane();
-        eventLogArea = createLogPane();
+        playerList = createLogList(playerModel);
+        robotList = createLogList(robotModel);
+        eventList = createLogList(eventModel);
         statsArea = new JTextArea(8, 30);
         statsArea.setEditable(false);
         statsArea.setFont(new Font("Monospaced", Font.BOLD, 13));
         statsArea.setBackground(new Color(240, 255, 240));
         statsArea.setBorder(BorderFactory.createTitledBorder("Estadísticas"));
-        tabbedPane.addTab("Jugadores", new JScrollPane(playerLogArea));
-        tabbedPane.addTab("Robots", new JScrollPane(robotLogArea));
-        tabbedPane.addTab("Eventos", new JScrollPane(eventLogArea));
+        tabbedPane.addTab("Jugadores", new JScrollPane(playerList));
+        tabbedPane.addTab("Robots", new JScrollPane(robotList));
+        tabbedPane.addTab("Eventos", new JScrollPane(eventList));
 
         // Filtros
         JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -57,7 +72,7 @@ public class GameInfoPanel extends JPanel {
         add(filterPanel, BorderLayout.SOUTH);
         add(tabbedPane, BorderLayout.CENTER);
 
-        ActionListener filterListener = e -> refreshLogs();
+        ActionListener filterListener = e -> rebuildLists();
         filterMov.addActionListener(filterListener);
         filterPremio.addActionListener(filterListener);
         filterTrampa.addActionListener(filterListener);
@@ -66,113 +81,194 @@ public class GameInfoPanel extends JPanel {
         filterEvento.addActionListener(filterListener);
     }
 
-    private JTextPane createLogPane() {
-        JTextPane pane = new JTextPane();
-        pane.setEditable(false);
-        pane.setFont(new Font("Monospaced", Font.PLAIN, 13));
-        return pane;
+    private JList<LogEntry> createLogList(LogListModel model) {
+        JList<LogEntry> list = new JList<>(model);
+        list.setFont(LOG_FONT);
+        list.setCellRenderer(new LogCellRenderer());
+        // Con alto y ancho fijos JList no mide todas las filas: solo pinta las visibles
+        list.setFixedCellHeight(list.getFontMetrics(LOG_FONT).getHeight() + 2);
+        list.setFixedCellWidth(LOG_ROW_WIDTH);
+        return list;
     }
 
     public void clearLogs() {
-        playerLogArea.setText("");
-        robotLogArea.setText("");
-        eventLogArea.setText("");
+        entries.clear();
+        lastSequence = 0;
+        rebuildLists();
     }
 
-    private List<String> lastLogs = null;
+    /**
+     * Reemplaza el contenido por {@code logs}. Para seguir una partida conviene
+     * {@link #updateLogs(GameLogger)}, que agrega solo las líneas nuevas.
+     */
     public void appendCategorizedLogs(java.util.List<String> logs) {
-        lastLogs = logs;
-        refreshLogs();
-    }
-
-    private void refreshLogs() {
-        clearLogs();
-        if (lastLogs == null) return;
-        for (String log : lastLogs) {
-            LogType type = getLogType(log);
-            if (type == LogType.MOV && !filterMov.isSelected()) continue;
-            if (type == LogType.PREMIO && !filterPremio.isSelected()) continue;
-            if (type == LogType.TRAMPA && !filterTrampa.isSelected()) continue;
-            if (type == LogType.MUERTE && !filterMuerte.isSelected()) continue;
-            if (type == LogType.ROBOT && !filterRobot.isSelected()) continue;
-            if (type == LogType.EVENTO && !filterEvento.isSelected()) continue;
-            JTextPane pane = getPaneForType(type);
-            appendStyledLog(pane, log, type);
-        }
-        playerLogArea.setCaretPosition(playerLogArea.getDocument().getLength());
-        robotLogArea.setCaretPosition(robotLogArea.getDocument().getLength());
-        eventLogArea.setCaretPosition(eventLogArea.getDocument().getLength());
-    }
-
-    private JTextPane getPaneForType(LogType type) {
-        switch (type) {
-            case MOV: return playerLogArea;
-            case PREMIO: return playerLogArea;
-            case TRAMPA: return playerLogArea;
-            case MUERTE: return playerLogArea;
-            case ROBOT: return robotLogArea;
-            case EVENTO: return eventLogArea;
-            default: return eventLogArea;
+        entries.clear();
+        for (String log : logs) {
+            entries.add(new LogEntry(log, kindOf(log)));
         }
+        trimEntries();
+        rebuildLists();
     }
 
-    private void appendStyledLog(JTextPane pane, String log, LogType type) {
-        try {
-            StyledDocument doc = pane.getStyledDocument();
-            Style style = pane.addStyle("logStyle", null);
-            switch (type) {
-                case MOV:
-                    StyleConstants.setForeground(style, Color.BLUE);
-                    StyleConstants.setBold(style, false);
-                    doc.insertString(doc.getLength(), "🟦 " + log + "\n", style);
-                    break;
-                case PREMIO:
-                    StyleConstants.setForeground(style, new Color(218, 165, 32));
-                    StyleConstants.setBold(style, true);
-                    doc.insertString(doc.getLength(), "🪙 " + log + "\n", style);
-                    break;
-                case TRAMPA:
-                    StyleConstants.setForeground(style, Color.MAGENTA);
-                    StyleConstants.setBold(style, true);
-                    doc.insertString(doc.getLength(), "⚠️ " + log + "\n", style);
-                    break;
-                case MUERTE:
-                    StyleConstants.setForeground(style, Color.RED);
-                    StyleConstants.setBold(style, true);
-                    doc.insertString(doc.getLength(), "💀 " + log + "\n", style);
-                    break;
-                case ROBOT:
-                    StyleConstants.setForeground(style, Color.DARK_GRAY);
-                    StyleConstants.setBold(style, false);
-                    doc.insertString(doc.getLength(), "🤖 " + log + "\n", style);
-                    break;
-                case EVENTO:
-                    StyleConstants.setForeground(style, Color.GREEN.darker());
-                    StyleConstants.setBold(style, true);
-                    doc.insertString(doc.getLength(), "📢 " + log + "\n", style);
-                    break;
-                default:
-                    doc.insertString(doc.getLength(), log + "\n", null);
+    /**
+     * Agrega las líneas que el logger registró desde la última llamada, con la clase
+     * que el logger les asignó al registrarlas. Se llama en el hilo de Swing.
+     */
+    public void updateLogs(GameLogger logger) {
+        pending.clear();
+        pendingKinds.clear();
+        lastSequence = logger.getLogsAfter(lastSequence, pending, pendingKinds);
+        if (pending.isEmpty()) return;
+        boolean[] follow = {isAtBottom(playerList), isAtBottom(robotList), isAtBottom(eventList)};
+        for (int i = 0; i < pending.size(); i++) {
+            LogEntry entry = new LogEntry(pending.get(i), pendingKinds.get(i));
+            entries.add(entry);
+            if (isVisible(entry.kind)) {
+                modelFor(entry.kind).add(entry);
             }
-        } catch (Exception e) {
-            // Ignorar errores de estilo
+        }
+        pending.clear();
+        pendingKinds.clear();
+        if (trimEntries()) rebuildLists();
+        scrollToEnd(playerList, follow[0]);
+        scrollToEnd(robotList, follow[1]);
+        scrollToEnd(eventList, follow[2]);
+    }
+
+    /** Descarta las líneas más viejas si se pasó del máximo. @return true si descartó */
+    private boolean trimEntries() {
+        if (entries.size() <= MAX_ENTRIES) return false;
+        entries.subList(0, entries.size() - MAX_ENTRIES + MAX_ENTRIES / 8).clear();
+        return true;
+    }
+
+    /** Vuelve a llenar las listas desde el modelo en memoria, según los filtros. */
+    private void rebuildLists() {
+        List<LogEntry> players = new ArrayList<>();
+        List<LogEntry> robots = new ArrayList<>();
+        List<LogEntry> events = new ArrayList<>();
+        for (LogEntry entry : entries) {
+            if (!isVisible(entry.kind)) continue;
+            LogListModel model = modelFor(entry.kind);
+            (model == playerModel ? players : model == robotModel ? robots : events).add(entry);
+        }
+        playerModel.setRows(players);
+        robotModel.setRows(robots);
+        eventModel.setRows(events);
+        scrollToEnd(playerList, true);
+        scrollToEnd(robotList, true);
+        scrollToEnd(eventList, true);
+    }
+
+    private boolean isVisible(GameLogger.Kind kind) {
+        switch (kind) {
+            case MOVE: return filterMov.isSelected();
+            case PICKUP: return filterPremio.isSelected();
+            case TRAP: return filterTrampa.isSelected();
+            case DEATH: return filterMuerte.isSelected();
+            case ROBOT: return filterRobot.isSelected();
+            case EVENT: return filterEvento.isSelected();
+            default: return true;
+        }
+    }
+
+    private LogListModel modelFor(GameLogger.Kind kind) {
+        switch (kind) {
+            case MOVE:
+            case PICKUP:
+            case TRAP:
+            case DEATH:
+                return playerModel;
+            case ROBOT:
+                return robotModel;
+            default:
+                return eventModel;
+        }
+    }
+
+    private static boolean isAtBottom(JList<LogEntry> list) {
+        int size = list.getModel().getSize();
+        return size == 0 || list.getLastVisibleIndex() >= size - 2;
+    }
+
+    private static void scrollToEnd(JList<LogEntry> list, boolean follow) {
+        int size = list.getModel().getSize();
+        if (follow && size > 0) list.ensureIndexIsVisible(size - 1);
+    }
+
+    /** Línea de log ya clasificada. */
+    private static final class LogEntry {
+        final String text;
+        final GameLogger.Kind kind;
+
+        LogEntry(String text, GameLogger.Kind kind) {
+            this.text = text;
+            this.kind = kind;
+        }
+    }
+
+    /** Filas de una pestaña; avisa a la lista solo del tramo agregado. */
+    private static final class LogListModel extends AbstractListModel<LogEntry> {
+        private List<LogEntry> rows = new ArrayList<>();
+
+        void add(LogEntry entry) {
+            rows.add(entry);
+            fireIntervalAdded(this, rows.size() - 1, rows.size() - 1);
+        }
+
+        void setRows(List<LogEntry> newRows) {
+            int oldSize = rows.size();
+            rows = newRows;
+            if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+            if (!rows.isEmpty()) fireIntervalAdded(this, 0, rows.size() - 1);
+        }
+
+        @Override
+        public int getSize() {
+            return rows.size();
+        }
+
+        @Override
+        public LogEntry getElementAt(int index) {
+            return rows.get(index);
         }
     }
 
-    private enum LogType { MOV, PREMIO, TRAMPA, MUERTE, ROBOT, EVENTO, OTRO }
+    /** Color, negrita e ícono según el tipo de línea. */
+    private static final class LogCellRenderer extends DefaultListCellRenderer {
+        private static final Font BOLD = LOG_FONT.deriveFont(Font.BOLD);
 
-    private LogType getLogType(String log) {
-        String l = log.toLowerCase();
-        // Si es de robot, siempre ROBOT
-        if (l.contains("robot") || l.contains("malo")) return LogType.ROBOT;
-        if (l.contains("ha muerto")) return LogType.MUERTE;
-        if (l.contains("recolectó") || l.contains("colocó") || l.contains("premio")) return LogType.PREMIO;
-        if (l.contains("se movió")) return LogType.MOV;
-        if (l.contains("trampa")) return LogType.TRAMPA;
-        if (l.contains("evento") || l.contains("juego iniciado") || l.contains("fin de partida") || l.contains("ganador")) return LogType.EVENTO;
-        return LogType.OTRO;
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            LogEntry entry = (LogEntry) value;
+            switch (entry.kind) {
+                case MOVE: style("🟦 ", entry, Color.BLUE, false); break;
+                case PICKUP: style("🪙 ", entry, new Color(218, 165, 32), true); break;
+                case TRAP: style("⚠️ ", entry, Color.MAGENTA, true); break;
+                case DEATH: style("💀 ", entry, Color.RED, true); break;
+                case ROBOT: style("🤖 ", entry, Color.DARK_GRAY, false); break;
+                case EVENT: style("📢 ", entry, Color.GREEN.darker(), true); break;
+                default: style("", entry, Color.BLACK, false);
+            }
+            if (isSelected) setForeground(list.getSelectionForeground());
+            return this;
+        }
+
+        private void style(String icon, LogEntry entry, Color color, boolean bold) {
+            setText(icon + entry.text);
+            setForeground(color);
+            setFont(bold ? BOLD : LOG_FONT);
+        }
     }
 
+    /** Clase de una línea ya formateada: la del evento que la produjo, si se reconoce. */
+    private GameLogger.Kind kindOf(String log) {
+        int start = log.indexOf("] ");
+        String message = start >= 0 ? log.substring(start + 2) : log;
+        return parser.parse(message) ? parser.type.getKind() : GameLogger.Kind.OTHER;
+    }
 
     public void setStats(String stats) {
         statsArea.setText(stats);
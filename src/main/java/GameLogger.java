@@ -2,41 +2,103 @@
 package entregable2;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.BlockingQueue;
 
 
 /**
- * Clase para manejar el logging del juego de forma thread-safe
+ * Clase para manejar el logging del juego de forma thread-safe.
+ *
+ * {@link #getInstance()} devuelve el logger global que usan las partidas
+ * interactivas. Cuando varias partidas comparten la JVM cada una crea el suyo y lo
+ * recibe a través de su {@link GameContext}.
  */
 public class GameLogger {
+    /**
+     * Qué hace el modo asíncrono cuando el buffer está lleno: BLOCK espera lugar,
+     * DROP descarta el mensaje y SAMPLE espera lugar solo para una parte de los
+     * mensajes desbordados y descarta el resto. Los descartes se informan en el log.
+     */
+    public enum OverflowPolicy { BLOCK, DROP, SAMPLE }
+
+    /** Severidad de un mensaje; se registran los de nivel igual o mayor al mínimo. */
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    /** Origen de un mensaje, para activar o desactivar grupos enteros. */
+    public enum Category { PLAYER, ROBOT, GAME }
+
+    /**
+     * Clase de línea para la interfaz y los contadores. Se fija al registrar el mensaje
+     * y viaja junto a la línea en el historial, así nadie tiene que volver a leer el texto.
+     */
+    public enum Kind { MOVE, PICKUP, TRAP, DEATH, ROBOT, EVENT, OTHER }
+
     private BlockingQueue<String> displayEventQueue = null;
 
     public void setDisplayEventQueue(BlockingQueue<String> queue) {
         this.displayEventQueue = queue;
     }
-    private static GameLogger instance;
+    private static volatile GameLogger instance;
     private final ReentrantLock lock = new ReentrantLock();
+    private final String filename;
     private PrintWriter writer;
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private String lastLog = "";
-    private final List<String> logs = new ArrayList<>();
+    // Reemplaza a writer si se activa el archivo mapeado en memoria
+    private MappedLogWriter mapped;
+    static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // El formato tiene resolución de segundos: se formatea una vez por segundo
+    private static final TimestampCache TIMESTAMPS = new TimestampCache(TIMESTAMP_FORMAT, ZoneId.systemDefault());
+    private volatile String lastLog = "";
+    // Últimas líneas para la interfaz; la memoria queda fija aunque la partida sea larga
+    private static final int HISTORY_CAPACITY = 8192;
+    private final LogHistory history = new LogHistory(HISTORY_CAPACITY);
+    // Descarta todos los mensajes; para ejecuciones por lotes sin consola
+    private volatile boolean silent;
+    // Solo en modo asíncrono
+    private volatile AsyncLogWriter async;
+    // Registro binario opcional de los eventos tipados
+    private volatile BinaryEventLog binary;
+    private volatile boolean textEvents = true;
+    // Un bit por (categoría, nivel) habilitado; por defecto todo
+    private volatile int enabledMask = enabledMask(Level.DEBUG, (1 << Category.values().length) - 1);
+    private volatile Level minLevel = Level.DEBUG;
+    private volatile int enabledCategories = (1 << Category.values().length) - 1;
     
     private GameLogger() {
+        // Crear archivo de log con timestamp
+        this("game_log_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt");
+    }
+
+    /**
+     * Logger propio de una partida.
+     * @param filename archivo donde se agregan los mensajes, o null para no escribir archivo
+     */
+    public GameLogger(String filename) {
+        this(filename, false);
+    }
+
+    private GameLogger(String filename, boolean silent) {
+        this.filename = filename;
+        this.silent = silent;
         try {
-            // Crear archivo de log con timestamp
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "game_log_" + timestamp + ".txt";
-            writer = new PrintWriter(new FileWriter(filename, true));
-            log("=== INICIO DE NUEVA PARTIDA ===");
+            if (filename != null) {
+                writer = new PrintWriter(new FileWriter(filename, true));
+            }
+            logEvent(EventType.LOG_STARTED);
         } catch (IOException e) {
             System.err.println("Error al crear archivo de log: " + e.getMessage());
         }
     }
+
+    /** Logger sin archivo que descarta todos los mensajes, para ejecuciones por lotes. */
+    public static GameLogger silent() {
+        return new GameLogger(null, true);
+    }
     
     public static GameLogger getInstance() {
         if (instance == null) {
@@ -50,60 +112,336 @@ public class GameLogger {
     }
     
     public void log(String message) {
+        log(Level.INFO, Category.GAME, message);
+    }
+
+    public void log(Level level, Category category, String message) {
+        if (silent || !isEnabled(level, category)) return;
+        log(TimestampCache.currentTimeMillis(), kindOf(category), message);
+    }
+
+    /**
+     * Como {@link #log(Level, Category, String)}, pero el mensaje se arma solo si el
+     * nivel y la categoría están habilitados.
+     */
+    public void log(Level level, Category category, Supplier<String> message) {
+        if (silent || !isEnabled(level, category)) return;
+        log(TimestampCache.currentTimeMillis(), kindOf(category), message.get());
+    }
+
+    /** Clase de los mensajes libres: solo se sabe de dónde vienen. */
+    private static Kind kindOf(Category category) {
+        switch (category) {
+            case ROBOT: return Kind.ROBOT;
+            case GAME: return Kind.EVENT;
+            default: return Kind.OTHER;
+        }
+    }
+
+    public boolean isEnabled(Level level, Category category) {
+        return (enabledMask & bit(level, category)) != 0;
+    }
+
+    /** Nivel mínimo que se registra, en todas las categorías. Por defecto DEBUG. */
+    public void setLevel(Level level) {
         lock.lock();
         try {
-            String timestamp = LocalDateTime.now().format(formatter);
-            String logMessage = "[" + timestamp + "] " + message;
+            minLevel = level;
+            enabledMask = enabledMask(minLevel, enabledCategories);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Level getLevel() {
+        return minLevel;
+    }
+
+    public void setCategoryEnabled(Category category, boolean enabled) {
+        lock.lock();
+        try {
+            if (enabled) {
+                enabledCategories |= 1 << category.ordinal();
+            } else {
+                enabledCategories &= ~(1 << category.ordinal());
+            }
+            enabledMask = enabledMask(minLevel, enabledCategories);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isCategoryEnabled(Category category) {
+        return (enabledCategories & (1 << category.ordinal())) != 0;
+    }
+
+    private static int bit(Level level, Category category) {
+        return 1 << (category.ordinal() * Level.values().length + level.ordinal());
+    }
+
+    private static int enabledMask(Level minLevel, int categories) {
+        int mask = 0;
+        for (Category category : Category.values()) {
+            if ((categories & (1 << category.ordinal())) == 0) continue;
+            for (Level level : Level.values()) {
+                if (level.compareTo(minLevel) >= 0) mask |= bit(level, category);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Registra un evento tipado. Si hay registro binario se guarda como registro de
+     * ancho fijo; la línea de texto solo se arma si la salida de texto está activa.
+     */
+    public void logEvent(EventType type, int entity, int x, int y, int amount, int extra, int aux) {
+        if (silent || !isEnabled(type.getLevel(), type.getCategory())) return;
+        long time = TimestampCache.currentTimeMillis();
+        BinaryEventLog events = binary;
+        if (events != null) {
+            events.write(time, type, entity, x, y, amount, extra, aux);
+            if (!textEvents) return;
+        }
+        log(time, type.getKind(), type.format(entity, x, y, amount, extra, aux));
+    }
+
+    public void logEvent(EventType type, int entity, int x, int y, int amount, int extra) {
+        logEvent(type, entity, x, y, amount, extra, 0);
+    }
+
+    public void logEvent(EventType type) {
+        logEvent(type, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Guarda además los eventos tipados en un registro binario (ver {@link BinaryEventLog}).
+     * Con {@code textOutput} en false los eventos tipados ya no se formatean como texto
+     * ni llegan a la consola, al archivo de texto o al historial; los mensajes libres sí.
+     */
+    public void enableBinaryLog(String filename, boolean textOutput) throws IOException {
+        lock.lock();
+        try {
+            if (binary != null) {
+                throw new IllegalStateException("El registro binario ya está activo");
+            }
+            BinaryEventLog log = new BinaryEventLog(Paths.get(filename));
+            log.write(TimestampCache.currentTimeMillis(), EventType.LOG_STARTED, 0, 0, 0, 0, 0, 0);
+            binary = log;
+            textEvents = textOutput;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void log(long time, Kind kind, String message) {
+        AsyncLogWriter writerQueue = async;
+        if (writerQueue != null && writerQueue.offer(time, kind, message)) return;
+        lock.lock();
+        try {
+            String logMessage = append(time, kind, message);
             System.out.println(logMessage);
+            writeLine(logMessage);
+            flushFile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pasa a modo asíncrono: {@link #log} solo encola el mensaje en un buffer de
+     * {@code capacity} posiciones y un hilo escritor lo imprime y lo escribe en el
+     * archivo por lotes. {@link #close()} vacía el buffer antes de cerrar el archivo.
+     */
+    public void enableAsync(int capacity, OverflowPolicy policy) {
+        lock.lock();
+        try {
+            if (async != null) {
+                throw new IllegalStateException("El logger ya está en modo asíncrono");
+            }
+            async = new AsyncLogWriter(capacity, policy, this::writeBatch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isAsync() {
+        return async != null;
+    }
+
+    /** Mensajes descartados por desborde en modo asíncrono. */
+    public long getDroppedCount() {
+        AsyncLogWriter writerQueue = async;
+        return writerQueue != null ? writerQueue.getDroppedCount() : 0;
+    }
+
+    private void writeBatch(long[] times, Kind[] kinds, String[] messages, int count, long dropped) {
+        lock.lock();
+        try {
+            StringBuilder console = new StringBuilder();
+            if (dropped > 0) {
+                String logMessage = append(TimestampCache.currentTimeMillis(), EventType.LOG_DROPPED.getKind(),
+                    EventType.LOG_DROPPED.format(0, 0, 0, (int) dropped, 0, 0));
+                console.append(logMessage).append(System.lineSeparator());
+                writeLine(logMessage);
+            }
+            for (int i = 0; i < count; i++) {
+                String logMessage = append(times[i], kinds[i], messages[i]);
+                console.append(logMessage).append(System.lineSeparator());
+                writeLine(logMessage);
+            }
+            System.out.print(console);
+            flushFile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Escribe la línea en el archivo, si hay. Se llama con el lock tomado. */
+    private void writeLine(String logMessage) {
+        if (mapped != null) {
+            try {
+                mapped.append(logMessage);
+            } catch (IOException e) {
+                System.err.println("Error al escribir el archivo de log: " + e.getMessage());
+            }
+        } else if (writer != null) {
+            writer.println(logMessage);
+        }
+    }
+
+    private void flushFile() {
+        // El archivo mapeado no necesita flush: la línea ya está en memoria del sistema
+        if (mapped == null && writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Pasa a escribir el archivo de log sobre segmentos mapeados en memoria de
+     * {@code segmentBytes} bytes (ver {@link MappedLogWriter}): cada línea cuesta una
+     * copia en memoria en lugar de una escritura con flush. Lo escrito llega al disco
+     * cuando lo decide el sistema operativo o al llamar a {@link #force()}.
+     */
+    public void enableMappedFile(int segmentBytes) throws IOException {
+        lock.lock();
+        try {
+            if (filename == null) {
+                throw new IllegalStateException("El logger no tiene archivo");
+            }
+            if (mapped != null) {
+                throw new IllegalStateException("El archivo mapeado ya está activo");
+            }
             if (writer != null) {
-                writer.println(logMessage);
-                writer.flush();
+                writer.close();
+                writer = null;
             }
-            lastLog = logMessage;
-            logs.add(logMessage); // Agregar el log a la lista
-            // Agregar a la cola de eventos si está configurada
-            if (displayEventQueue != null) {
-                displayEventQueue.offer(logMessage);
+            mapped = new MappedLogWriter(Paths.get(filename), segmentBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Barrera de durabilidad: vuelve cuando todo lo registrado hasta ahora está
+     * escrito en disco (archivo de texto y registro binario). En modo asíncrono
+     * espera antes a que el escritor vacíe el buffer.
+     */
+    public void force() {
+        AsyncLogWriter writerQueue = async;
+        if (writerQueue != null) {
+            writerQueue.awaitWritten();
+        }
+        BinaryEventLog events = binary;
+        if (events != null) {
+            try {
+                events.force();
+            } catch (IOException e) {
+                System.err.println("Error al sincronizar el registro binario: " + e.getMessage());
+            }
+        }
+        lock.lock();
+        try {
+            if (mapped != null) {
+                mapped.force();
+            } else if (writer != null) {
+                // PrintWriter no permite sincronizar con el disco; al menos se vacía
+                writer.flush();
             }
         } finally {
             lock.unlock();
         }
     }
+
+    /**
+     * Formatea la línea y la registra en memoria y en la cola de eventos.
+     * Se llama con el lock tomado.
+     */
+    private String append(long time, Kind kind, String message) {
+        String logMessage = formatLine(time, message);
+        lastLog = logMessage;
+        history.append(logMessage, kind);
+        // Agregar a la cola de eventos si está configurada
+        if (displayEventQueue != null) {
+            displayEventQueue.offer(logMessage);
+        }
+        return logMessage;
+    }
     
+    /** Línea tal como se escribe en el archivo: {@code [fecha hora] mensaje}. */
+    static String formatLine(long time, String message) {
+        return TIMESTAMPS.prefix(time).concat(message);
+    }
+
     public void logPlayerAction(int playerId, String action) {
-        log("JUGADOR " + playerId + ": " + action);
+        if (!isEnabled(Level.INFO, Category.PLAYER)) return;
+        log(Level.INFO, Category.PLAYER, "JUGADOR " + playerId + ": " + action);
+    }
+
+    public void logPlayerAction(Level level, int playerId, Supplier<String> action) {
+        if (!isEnabled(level, Category.PLAYER)) return;
+        log(level, Category.PLAYER, "JUGADOR " + playerId + ": " + action.get());
     }
     
     public void logRobotAction(String robotName, String action) {
-        log(robotName + ": " + action);
+        if (!isEnabled(Level.INFO, Category.ROBOT)) return;
+        log(Level.INFO, Category.ROBOT, robotName + ": " + action);
+    }
+
+    public void logRobotAction(Level level, String robotName, Supplier<String> action) {
+        if (!isEnabled(level, Category.ROBOT)) return;
+        log(level, Category.ROBOT, robotName + ": " + action.get());
     }
     
     public void logGameEvent(String event) {
-        log("EVENTO: " + event);
+        if (!isEnabled(Level.INFO, Category.GAME)) return;
+        log(Level.INFO, Category.GAME, "EVENTO: " + event);
+    }
+
+    public void logGameEvent(Level level, Supplier<String> event) {
+        if (!isEnabled(level, Category.GAME)) return;
+        log(level, Category.GAME, "EVENTO: " + event.get());
     }
     
     public void logGameEnd(Player[] players) {
-        log("=== FIN DE PARTIDA ===");
-        log("RESULTADOS FINALES:");
+        logEvent(EventType.GAME_ENDED);
+        logEvent(EventType.FINAL_RESULTS);
         
         for (Player player : players) {
             if (player != null) {
-                log("Jugador " + player.getId() + 
-                    " - Vidas: " + player.getLives() + 
-                    ", Monedas: " + player.getCoins() + 
-                    ", Estado: " + (player.isAlive() ? "VIVO" : "MUERTO"));
+                logEvent(EventType.PLAYER_RESULT, player.getId(), player.getX(), player.getY(),
+                    player.getCoins(), player.getLives(), player.isAlive() ? 1 : 0);
             }
         }
         
         // Determinar ganador
         Player winner = findWinner(players);
         if (winner != null) {
-            log("GANADOR: Jugador " + winner.getId() + " con " + winner.getCoins() + " monedas");
+            logEvent(EventType.WINNER, winner.getId(), winner.getX(), winner.getY(), winner.getCoins(), 0);
         } else {
-            log("NO HAY GANADOR - Todos los jugadores murieron");
+            logEvent(EventType.NO_WINNER);
         }
         
-        log("=== FIN DEL LOG ===");
+        logEvent(EventType.LOG_ENDED);
     }
     
     private Player findWinner(Player[] players) {
@@ -121,8 +459,29 @@ public class GameLogger {
     }
     
     public void close() {
+        AsyncLogWriter writerQueue = async;
+        if (writerQueue != null) {
+            // Los mensajes que lleguen después se escriben directamente
+            writerQueue.close();
+        }
+        BinaryEventLog events = binary;
+        if (events != null) {
+            try {
+                events.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el registro binario: " + e.getMessage());
+            }
+        }
         lock.lock();
         try {
+            if (mapped != null) {
+                try {
+                    mapped.close();
+                } catch (IOException e) {
+                    System.err.println("Error al cerrar el archivo de log: " + e.getMessage());
+                }
+                mapped = null;
+            }
             if (writer != null) {
                 writer.close();
             }
@@ -131,11 +490,50 @@ public class GameLogger {
         }
     }
     
+    /**
+     * Activa o desactiva el modo silencioso: los mensajes no se imprimen, no se
+     * escriben en el archivo ni se guardan en memoria.
+     */
+    public void setSilent(boolean silent) {
+        this.silent = silent;
+    }
+
+    public boolean isSilent() {
+        return silent;
+    }
+
     public String getLastLog() {
         return lastLog;
     }
     
+    /**
+     * Copia de las últimas líneas conservadas (como máximo {@value #HISTORY_CAPACITY}).
+     * Para leer solo las nuevas conviene {@link #getLogsAfter}.
+     */
     public List<String> getLogs() {
-        return logs;
+        return history.snapshot();
+    }
+
+    /**
+     * Agrega a {@code out} las líneas registradas después de la secuencia
+     * {@code afterSequence} (0 para empezar desde la más antigua conservada).
+     * No toma el lock del logger.
+     * @return la secuencia de la última línea entregada, para la próxima llamada
+     */
+    public long getLogsAfter(long afterSequence, List<String> out) {
+        return history.readAfter(afterSequence, out, null);
+    }
+
+    /**
+     * Como {@link #getLogsAfter(long, List)}, agregando además a {@code kinds} la clase
+     * de cada línea, en el mismo orden.
+     */
+    public long getLogsAfter(long afterSequence, List<String> out, List<Kind> kinds) {
+        return history.readAfter(afterSequence, out, kinds);
+    }
+
+    /** Secuencia de la última línea registrada. */
+    public long getLogSequence() {
+        return history.getLastSequence();
     }
 }
@@ -0,0 +1,81 @@
+package entregable2;
+
+/**
+ * Parámetros de una partida. Agrupa los valores que antes se armaban a mano en
+ * {@link GameSimulator} para poder reutilizarlos en ejecuciones por lotes.
+ */
+public final class GameSettings {
+    private final String name;
+    private final int boardSize;
+    private final int minPlayers;
+    private final int gameDuration; // en segundos
+    private final int vidasIniciales;
+    private final int maxTrampas;
+    private final int maxVidas;
+    private final int maxMonedas;
+    private final int robotPremioFrecuencia;
+    private final int robotTrampaFrecuencia;
+
+    public GameSettings(String name, int boardSize, int minPlayers, int gameDuration,
+                        int vidasIniciales, int maxTrampas, int maxVidas, int maxMonedas,
+                        int robotPremioFrecuencia, int robotTrampaFrecuencia) {
+        this.name = name;
+        this.boardSize = boardSize;
+        this.minPlayers = minPlayers;
+        this.gameDuration = gameDuration;
+        this.vidasIniciales = vidasIniciales;
+        this.maxTrampas = maxTrampas;
+        this.maxVidas = maxVidas;
+        this.maxMonedas = maxMonedas;
+        this.robotPremioFrecuencia = robotPremioFrecuencia;
+        this.robotTrampaFrecuencia = robotTrampaFrecuencia;
+    }
+
+    /**
+     * Parámetros según dificultad: 1=Fácil, 2=Normal, 3=Difícil.
+     */
+    public static GameSettings forDifficulty(int dificultad, int boardSize, int minPlayers, int gameDuration) {
+        if (dificultad < 1 || dificultad > 3) dificultad = 2;
+        String name = (dificultad == 1) ? "Fácil" : (dificultad == 3) ? "Difícil" : "Normal";
+        int vidasIniciales = (dificultad == 1) ? 4 : (dificultad == 3) ? 1 : 2;
+        int maxTrampas = (dificultad == 1) ? 5 : (dificultad == 3) ? 15 : 10;
+        int maxVidas = (dificultad == 1) ? 15 : (dificultad == 3) ? 5 : 10;
+        int maxMonedas = (dificultad == 1) ? 15 : (dificultad == 3) ? 5 : 10;
+        int robotPremioFrecuencia = (dificultad == 1) ? 1000 : (dificultad == 3) ? 4000 : 2000;
+        int robotTrampaFrecuencia = (dificultad == 1) ? 4000 : (dificultad == 3) ? 1000 : 3000;
+        return new GameSettings(name, boardSize, minPlayers, gameDuration, vidasIniciales,
+            maxTrampas, maxVidas, maxMonedas, robotPremioFrecuencia, robotTrampaFrecuencia);
+    }
+
+    public ConcurrentGame createGame() {
+        return createGame(ConcurrentGame.ExecutionMode.PLATFORM_THREADS);
+    }
+
+    /** Partida con el logger global y pools propios. */
+    public ConcurrentGame createGame(ConcurrentGame.ExecutionMode executionMode) {
+        return new ConcurrentGame(this, GameContext.create(createBoard(), GameLogger.getInstance(),
+            executionMode, System.nanoTime()));
+    }
+
+    /** Tablero vacío con el tamaño y los máximos de esta configuración. */
+    public GameBoard createBoard() {
+        return new GameBoard(boardSize, maxTrampas, maxVidas, maxMonedas);
+    }
+
+    public String getName() { return name; }
+    public int getBoardSize() { return boardSize; }
+    public int getMinPlayers() { return minPlayers; }
+    public int getGameDuration() { return gameDuration; }
+    public int getVidasIniciales() { return vidasIniciales; }
+    public int getMaxTrampas() { return maxTrampas; }
+    public int getMaxVidas() { return maxVidas; }
+    public int getMaxMonedas() { return maxMonedas; }
+    public int getRobotPremioFrecuencia() { return robotPremioFrecuencia; }
+    public int getRobotTrampaFrecuencia() { return robotTrampaFrecuencia; }
+
+    @Override
+    public String toString() {
+        return String.format("%s (vidas=%d, trampas=%d, maxVidas=%d, maxMonedas=%d, premio=%dms, trampa=%dms)",
+            name, vidasIniciales, maxTrampas, maxVidas, maxMonedas, robotPremioFrecuencia, robotTrampaFrecuencia);
+    }
+}
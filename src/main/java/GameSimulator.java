@@ -2,6 +2,7 @@ package entregable2;
 
 import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.SwingUtilities;
 import javax.swing.JOptionPane;
 
@@ -31,15 +32,8 @@ public class GameSimulator {
         if (dificultad < 1 || dificultad > 3) dificultad = 2;
 
         // Parámetros según dificultad
-        int vidasIniciales = (dificultad == 1) ? 4 : (dificultad == 3) ? 1 : 2;
-        int maxTrampas = (dificultad == 1) ? 5 : (dificultad == 3) ? 15 : 10;
-        int maxVidas = (dificultad == 1) ? 15 : (dificultad == 3) ? 5 : 10;
-        int maxMonedas = (dificultad == 1) ? 15 : (dificultad == 3) ? 5 : 10;
-        int robotPremioFrecuencia = (dificultad == 1) ? 1000 : (dificultad == 3) ? 4000 : 2000;
-        int robotTrampaFrecuencia = (dificultad == 1) ? 4000 : (dificultad == 3) ? 1000 : 3000;
-
-        ConcurrentGame game = new ConcurrentGame(BOARD_SIZE, MIN_PLAYERS, GAME_DURATION,
-            vidasIniciales, maxTrampas, maxVidas, maxMonedas, robotPremioFrecuencia, robotTrampaFrecuencia);
+        ConcurrentGame game = GameSettings.forDifficulty(dificultad, BOARD_SIZE, MIN_PLAYERS, GAME_DURATION)
+            .createGame();
 
         System.out.println("=== SIMULADOR DE JUEGO CONCURRENTE ===");
         System.out.println("Tablero: " + BOARD_SIZE + "x" + BOARD_SIZE);
@@ -72,20 +66,21 @@ public class GameSimulator {
                 windowRef[0] = new GameWindow(game.getBoard(), game.getPlayers());
                 // Actualización inicial de stats y logs
                 windowRef[0].updateStats(game.getStatsText());
-                windowRef[0].clearLogs();
-                windowRef[0].appendCategorizedLogs(game.getLogger().getLogs());
+                windowRef[0].updateLogs(game.getLogger());
             });
 
             // Hilo de display: consume eventos de la cola y actualiza la GUI
+            AtomicBoolean refreshPending = new AtomicBoolean();
             new Thread(() -> {
                 try {
                     while (game.isGameRunning()) {
                         String event = game.getDisplayEventQueue().take();
-                        if (windowRef[0] != null) {
+                        // Un refresco pendiente ya va a mostrar este evento: no encolar otro
+                        if (windowRef[0] != null && refreshPending.compareAndSet(false, true)) {
                             SwingUtilities.invokeLater(() -> {
+                                refreshPending.set(false);
                                 windowRef[0].updateStats(game.getStatsText());
-                                windowRef[0].clearLogs();
-                                windowRef[0].appendCategorizedLogs(game.getLogger().getLogs());
+                                windowRef[0].updateLogs(game.getLogger());
                             });
                         }
                     }
@@ -100,8 +95,7 @@ public class GameSimulator {
                     if (windowRef[0] != null) {
                         SwingUtilities.invokeLater(() -> {
                             windowRef[0].updateStats(game.getStatsText());
-                            windowRef[0].clearLogs();
-                            windowRef[0].appendCategorizedLogs(game.getLogger().getLogs());
+                            windowRef[0].updateLogs(game.getLogger());
                         });
                     }
                     try { Thread.sleep(2000); } catch (InterruptedException e) { break; }
@@ -135,6 +129,12 @@ public class GameSimulator {
             SwingUtilities.invokeLater(() -> {
                 StringBuilder resumen = new StringBuilder();
                 resumen.append("=== PARTIDA TERMINADA ===\n\n");
+                BoardSnapshot tableroFinal = game.getFinalSnapshot();
+                if (tableroFinal != null) {
+                    resumen.append("Tablero final - Monedas: ").append(tableroFinal.getTotalCoins())
+                        .append(", Vidas: ").append(tableroFinal.getTotalLives())
+                        .append(", Trampas: ").append(tableroFinal.getTotalTraps()).append("\n\n");
+                }
                 resumen.append("--- Jugadores ---\n");
                 for (Player p : game.getPlayers()) {
                     resumen.append("Jugador ").append(p.getId())
@@ -52,4 +52,8 @@ public class GameWindow extends JFrame {
     public void appendCategorizedLogs(java.util.List<String> logs) {
         infoPanel.appendCategorizedLogs(logs);
     }
+
+    public void updateLogs(GameLogger logger) {
+        infoPanel.updateLogs(logger);
+    }
 }
@@ -0,0 +1,483 @@
+package entregable2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estadísticas sobre archivos {@code game_log_*.txt} ya escritos. Cada archivo se
+ * mapea en memoria y se recorre byte a byte reconociendo las líneas que escriben
+ * {@link GameLogger}, {@link Player} y los robots (también las del formato anterior
+ * de movimiento, {@code se movió a (x,y) con dado N}). Los archivos se reparten en un
+ * {@link ForkJoinPool} dividiendo la lista a la mitad, como en {@link TournamentRunner}.
+ *
+ * La dificultad no se escribe en el log: se deduce de las vidas iniciales de los
+ * jugadores (vidas finales + trampas - vidas recolectadas), que valen 4, 2 y 1 en
+ * Fácil, Normal y Difícil.
+ *
+ * Uso: {@code java entregable2.LogAnalyzer [directorio o archivos...] [--hilos N] [--detalle] [--escalado]}
+ * <ul>
+ *   <li>{@code --detalle}: una línea por partida además del resumen</li>
+ *   <li>{@code --escalado}: repite el análisis con 1, 2, 4... hilos y muestra la aceleración</li>
+ * </ul>
+ */
+public class LogAnalyzer {
+    private static final Pattern LOG_FILE = Pattern.compile("(game_log_\\d{8}_\\d{6})(?:\\.(\\d+))?\\.txt");
+
+    public static void main(String[] args) throws Exception {
+        List<Path> inputs = new ArrayList<>();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        boolean detail = false;
+        boolean scaling = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hilos": parallelism = Integer.parseInt(args[++i]); break;
+                case "--detalle": detail = true; break;
+                case "--escalado": scaling = true; break;
+                default: inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) inputs.add(Paths.get("."));
+        List<List<Path>> logs = findLogs(inputs);
+        if (logs.isEmpty()) {
+            System.out.println("No se encontraron archivos game_log_*.txt");
+            return;
+        }
+
+        if (scaling) {
+            printScaling(logs, parallelism);
+            return;
+        }
+        long start = System.nanoTime();
+        Summary summary = analyze(logs, parallelism);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (detail) {
+            for (GameStats game : summary.games) {
+                System.out.println(game);
+            }
+            System.out.println();
+        }
+        System.out.print(summary.report());
+        System.out.printf("%d archivos, %.1f MB en %.3f s (%d hilos)%n",
+            logs.size(), summary.bytes / (1024.0 * 1024.0), seconds, parallelism);
+    }
+
+    /**
+     * Busca los logs en los directorios dados. Los segmentos de un mismo log
+     * ({@code game_log_X.txt}, {@code game_log_X.1.txt}, ...) quedan juntos y en orden.
+     */
+    public static List<List<Path>> findLogs(List<Path> inputs) throws IOException {
+        Map<String, TreeMap<Integer, Path>> byLog = new TreeMap<>();
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(input, "game_log_*.txt")) {
+                    dir.forEach(files::add);
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        for (Path file : files) {
+            Matcher m = LOG_FILE.matcher(file.getFileName().toString());
+            String key = m.matches() ? file.resolveSibling(m.group(1)).toString() : file.toString();
+            int segment = m.matches() && m.group(2) != null ? Integer.parseInt(m.group(2)) : 0;
+            byLog.computeIfAbsent(key, k -> new TreeMap<>()).put(segment, file);
+        }
+        List<List<Path>> logs = new ArrayList<>();
+        for (TreeMap<Integer, Path> segments : byLog.values()) {
+            logs.add(new ArrayList<>(segments.values()));
+        }
+        return logs;
+    }
+
+    public static Summary analyze(List<List<Path>> logs, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new Batch(logs, 0, logs.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void printScaling(List<List<Path>> logs, int maxThreads) {
+        // Sobre pocos archivos la medición no dice nada: se repite la lista
+        List<List<Path>> work = new ArrayList<>();
+        while (work.size() < 2000) work.addAll(logs);
+        // Calentar el JIT y la caché de páginas
+        for (int i = 0; i < 3; i++) {
+            analyze(work, 1);
+            analyze(work, maxThreads);
+        }
+        System.out.printf("%d archivos (la lista se repite hasta 2000)%n", work.size());
+        System.out.printf("%6s | %10s | %10s | %10s%n", "hilos", "MB/s", "partidas/s", "aceleración");
+        double base = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            long start = System.nanoTime();
+            Summary summary = analyze(work, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double mbPerSecond = summary.bytes / (1024.0 * 1024.0) / seconds;
+            if (threads == 1) base = mbPerSecond;
+            System.out.printf("%6d | %10.1f | %10.0f | %9.2fx%n",
+                threads, mbPerSecond, summary.games.size() / seconds, mbPerSecond / base);
+        }
+    }
+
+    private static final class Batch extends RecursiveTask<Summary> {
+        private final List<List<Path>> logs;
+        private final int from;
+        private final int to;
+
+        Batch(List<List<Path>> logs, int from, int to) {
+            this.logs = logs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from <= 1) {
+                Summary summary = new Summary();
+                if (to > from) new LogParser(summary).parse(logs.get(from));
+                return summary;
+            }
+            int mid = (from + to) >>> 1;
+            Batch left = new Batch(logs, from, mid);
+            left.fork();
+            Summary right = new Batch(logs, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /** Resultados de una partida leída del log. */
+    public static final class GameStats {
+        String file;
+        String startTime;
+        int players;
+        int duration;
+        boolean complete;
+        boolean endedByTime;
+        int winner = -1;
+        int winnerCoins;
+        int deaths;
+        int trapHits;
+        int coinPickups;
+        int coinsCollected;
+        int lifePickups;
+        int moves;
+        int steps;
+        int blockedMoves;
+        int coinsPlaced;
+        int livesPlaced;
+        int trapsPlaced;
+        // Por jugador: trampas - vidas recolectadas, para deducir las vidas iniciales
+        final Map<Integer, Integer> lifeBalance = new HashMap<>();
+        final Map<Integer, Integer> initialLives = new HashMap<>();
+
+        /** Vidas iniciales más frecuentes entre los jugadores, o -1 si no hay resultados. */
+        public int getInitialLives() {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (int lives : initialLives.values()) counts.merge(lives, 1, Integer::sum);
+            int best = -1;
+            int bestCount = 0;
+            for (Map.Entry<Integer, Integer> e : counts.entrySet()) {
+                if (e.getValue() > bestCount) {
+                    best = e.getKey();
+                    bestCount = e.getValue();
+                }
+            }
+            return best;
+        }
+
+        public String getDifficulty() {
+            int lives = getInitialLives();
+            switch (lives) {
+                case 4: return "Fácil";
+                case 2: return "Normal";
+                case 1: return "Difícil";
+                case -1: return "Desconocida";
+                default: return "Otra (" + lives + " vidas)";
+            }
+        }
+
+        public boolean hasWinner() { return winner > 0; }
+        public int getWinner() { return winner; }
+        public int getWinnerCoins() { return winnerCoins; }
+        public int getDeaths() { return deaths; }
+        public int getTrapHits() { return trapHits; }
+        public int getMoves() { return moves; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s | %s, %d jugadores, %d s | %s | muertes=%d trampas=%d monedas=%d(%d) vidas=%d movimientos=%d bloqueados=%d",
+                file, startTime, getDifficulty(), players, duration,
+                hasWinner() ? "ganador J" + winner + " con " + winnerCoins : "sin ganador",
+                deaths, trapHits, coinPickups, coinsCollected, lifePickups, moves, blockedMoves);
+        }
+    }
+
+    /** Agregado de muchas partidas; se combina de a pares al volver de las tareas. */
+    public static final class Summary {
+        final List<GameStats> games = new ArrayList<>();
+        int incomplete;
+        long bytes;
+
+        void add(GameStats game) {
+            if (game.complete) {
+                games.add(game);
+            } else {
+                incomplete++;
+            }
+        }
+
+        Summary merge(Summary other) {
+            games.addAll(other.games);
+            incomplete += other.incomplete;
+            bytes += other.bytes;
+            return this;
+        }
+
+        public List<GameStats> getGames() {
+            return games;
+        }
+
+        public String report() {
+            Map<String, List<GameStats>> byDifficulty = new TreeMap<>();
+            for (GameStats game : games) {
+                byDifficulty.computeIfAbsent(game.getDifficulty(), k -> new ArrayList<>()).add(game);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Partidas completas: %d, incompletas: %d%n", games.size(), incomplete));
+            sb.append(String.format("%-20s | %8s | %8s | %10s | %8s | %8s | %8s | %8s | %10s%n",
+                "dificultad", "partidas", "ganador", "mon. gan.", "muertes", "trampas", "monedas", "vidas", "movimientos"));
+            for (Map.Entry<String, List<GameStats>> e : byDifficulty.entrySet()) {
+                appendRow(sb, e.getKey(), e.getValue());
+            }
+            appendRow(sb, "Total", games);
+            return sb.toString();
+        }
+
+        private static void appendRow(StringBuilder sb, String name, List<GameStats> games) {
+            int n = Math.max(1, games.size());
+            int withWinner = 0;
+            long winnerCoins = 0, deaths = 0, traps = 0, coins = 0, lives = 0, moves = 0;
+            for (GameStats game : games) {
+                if (game.hasWinner()) {
+                    withWinner++;
+                    winnerCoins += game.winnerCoins;
+                }
+                deaths += game.deaths;
+                traps += game.trapHits;
+                coins += game.coinPickups;
+                lives += game.lifePickups;
+                moves += game.moves;
+            }
+            sb.append(String.format("%-20s | %8d | %7.0f%% | %10.1f | %8.2f | %8.2f | %8.2f | %8.2f | %10.1f%n",
+                name, games.size(), 100.0 * withWinner / n,
+                withWinner > 0 ? (double) winnerCoins / withWinner : 0.0,
+                (double) deaths / n, (double) traps / n, (double) coins / n, (double) lives / n, (double) moves / n));
+        }
+    }
+
+    /**
+     * Recorre un log línea por línea sobre el archivo mapeado, sin decodificar a String
+     * más que la hora de inicio de cada partida.
+     */
+    private static final class LogParser {
+        // Prefijos tomados de los mensajes de EventType (ver LogLineParser#literal)
+        private static final byte[] GAME_STARTING = literal(EventType.GAME_STARTING, 0);
+        private static final byte[] GAME_DURATION = literal(EventType.GAME_DURATION, 0);
+        private static final byte[] TIME_UP = literal(EventType.TIME_UP, 0);
+        private static final byte[] LOG_ENDED = literal(EventType.LOG_ENDED, 0);
+        private static final byte[] PLAYER = literal(EventType.PLAYER_MOVED, 0);
+        private static final byte[] MOVED_WITH_DICE = literal(EventType.PLAYER_MOVED, 1);
+        private static final byte[] MOVED_TO = bytes(LogLineParser.LEGACY_MOVED_TO);
+        private static final byte[] BLOCKED = bytes(LogLineParser.LEGACY_BLOCKED);
+        private static final byte[] COINS_COLLECTED_PREFIX = literal(EventType.COINS_COLLECTED, 1);
+        private static final byte[] LIFE_COLLECTED = literal(EventType.LIFE_COLLECTED, 1);
+        private static final byte[] TRAP_HIT = literal(EventType.TRAP_HIT, 1);
+        private static final byte[] DIED = literal(EventType.PLAYER_DIED, 1);
+        private static final byte[] RESULT = literal(EventType.PLAYER_RESULT, 1);
+        private static final byte[] WINNER = literal(EventType.WINNER, 0);
+        private static final byte[] WINNER_COINS = literal(EventType.WINNER, 1);
+        private static final byte[] COINS_PLACED = literal(EventType.COINS_PLACED, 0);
+        private static final byte[] LIFE_PLACED = literal(EventType.LIFE_PLACED, 0);
+        private static final byte[] TRAP_PLACED = literal(EventType.TRAP_PLACED, 0);
+        private static final byte[] ARROW = bytes(EventType.PATH_ARROW);
+
+        private final Summary summary;
+        private MappedByteBuffer buf;
+        private int pos;
+        private GameStats game;
+        private String file;
+
+        LogParser(Summary summary) {
+            this.summary = summary;
+        }
+
+        void parse(List<Path> segments) {
+            file = segments.get(0).getFileName().toString();
+            for (Path segment : segments) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    if (size == 0) continue;
+                    if (size > Integer.MAX_VALUE) throw new IOException("Archivo demasiado grande: " + segment);
+                    buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    summary.bytes += size;
+                    int limit = (int) size;
+                    int lineStart = 0;
+                    while (lineStart < limit) {
+                        int lineEnd = lineStart;
+                        while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+                        int end = lineEnd > lineStart && buf.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                        parseLine(lineStart, end);
+                        lineStart = lineEnd + 1;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (game != null) summary.add(game);
+            buf = null;
+        }
+
+        private void parseLine(int start, int end) {
+            // "[yyyy-MM-dd HH:mm:ss] mensaje"
+            int close = indexOf(start, end, (byte) ']');
+            if (buf.get(start) != '[' || close < 0 || close + 2 > end) return;
+            int msg = close + 2;
+
+            if (startsWith(msg, end, GAME_STARTING)) {
+                if (game != null) summary.add(game);
+                game = new GameStats();
+                game.file = file;
+                game.startTime = decode(start + 1, close);
+                pos = msg + GAME_STARTING.length;
+                game.players = readInt(end);
+                return;
+            }
+            if (game == null) return;
+
+            if (startsWith(msg, end, PLAYER)) {
+                pos = msg + PLAYER.length;
+                int id = readInt(end);
+                int rest = pos;
+                if (startsWith(rest, end, MOVED_WITH_DICE)) {
+                    game.moves++;
+                    game.steps += count(rest, end, ARROW);
+                } else if (startsWith(rest, end, MOVED_TO)) {
+                    game.moves++;
+                    game.steps++;
+                } else if (startsWith(rest, end, BLOCKED)) {
+                    game.blockedMoves++;
+                } else if (startsWith(rest, end, LIFE_COLLECTED)) {
+                    game.lifePickups++;
+                    game.lifeBalance.merge(id, -1, Integer::sum);
+                } else if (startsWith(rest, end, COINS_COLLECTED_PREFIX)) {
+                    pos = rest + COINS_COLLECTED_PREFIX.length;
+                    game.coinPickups++;
+                    game.coinsCollected += readInt(end);
+                } else if (startsWith(rest, end, TRAP_HIT)) {
+                    game.trapHits++;
+                    game.lifeBalance.merge(id, 1, Integer::sum);
+                } else if (startsWith(rest, end, DIED)) {
+                    game.deaths++;
+                } else if (startsWith(rest, end, RESULT)) {
+                    pos = rest + RESULT.length;
+                    int lives = readInt(end);
+                    game.initialLives.put(id, lives + game.lifeBalance.getOrDefault(id, 0));
+                }
+            } else if (startsWith(msg, end, COINS_PLACED)) {
+                game.coinsPlaced++;
+            } else if (startsWith(msg, end, LIFE_PLACED)) {
+                game.livesPlaced++;
+            } else if (startsWith(msg, end, TRAP_PLACED)) {
+                game.trapsPlaced++;
+            } else if (startsWith(msg, end, GAME_DURATION)) {
+                pos = msg + GAME_DURATION.length;
+                game.duration = readInt(end);
+            } else if (startsWith(msg, end, TIME_UP)) {
+                game.endedByTime = true;
+            } else if (startsWith(msg, end, WINNER)) {
+                pos = msg + WINNER.length;
+                game.winner = readInt(end);
+                pos += WINNER_COINS.length;
+                game.winnerCoins = readInt(end);
+            } else if (startsWith(msg, end, LOG_ENDED)) {
+                game.complete = true;
+                summary.add(game);
+                game = null;
+            }
+        }
+
+        /** Lee un entero desde {@code pos} y deja {@code pos} después del último dígito. */
+        private int readInt(int end) {
+            int value = 0;
+            boolean negative = pos < end && buf.get(pos) == '-';
+            if (negative) pos++;
+            while (pos < end) {
+                byte b = buf.get(pos);
+                if (b < '0' || b > '9') break;
+                value = value * 10 + (b - '0');
+                pos++;
+            }
+            return negative ? -value : value;
+        }
+
+        private boolean startsWith(int at, int end, byte[] prefix) {
+            if (end - at < prefix.length) return false;
+            for (int i = 0; i < prefix.length; i++) {
+                if (buf.get(at + i) != prefix[i]) return false;
+            }
+            return true;
+        }
+
+        private int count(int from, int end, byte[] token) {
+            int n = 0;
+            for (int i = from; i <= end - token.length; i++) {
+                if (buf.get(i) == token[0] && startsWith(i, end, token)) {
+                    n++;
+                    i += token.length - 1;
+                }
+            }
+            return n;
+        }
+
+        private int indexOf(int from, int end, byte b) {
+            for (int i = from; i < end; i++) {
+                if (buf.get(i) == b) return i;
+            }
+            return -1;
+        }
+
+        private String decode(int from, int to) {
+            byte[] raw = new byte[to - from];
+            for (int i = 0; i < raw.length; i++) raw[i] = buf.get(from + i);
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+
+        private static byte[] bytes(String s) {
+            return s.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static byte[] literal(EventType type, int index) {
+            return bytes(LogLineParser.literal(type, index));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package entregable2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Historial acotado de las últimas líneas de log. Cada línea recibe un número de
+ * secuencia creciente (desde 1) y se guarda con su clase ({@link GameLogger.Kind}) en
+ * un buffer circular de capacidad fija, así la memoria no crece en partidas largas.
+ *
+ * Escribe un solo hilo a la vez (el que tiene el lock de {@link GameLogger}); los
+ * lectores no toman locks y piden solo las líneas posteriores a la última que vieron.
+ * Si quedaron más atrás que la capacidad, reciben desde la más antigua que se conserva.
+ */
+final class LogHistory {
+    private final int mask;
+    private final AtomicReferenceArray<String> lines;
+    private final AtomicReferenceArray<GameLogger.Kind> kinds;
+    // Secuencia guardada en cada posición; -1 mientras se reemplaza
+    private final AtomicLongArray published;
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    LogHistory(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity));
+        if (slots < capacity) slots <<= 1;
+        this.mask = slots - 1;
+        this.lines = new AtomicReferenceArray<>(slots);
+        this.kinds = new AtomicReferenceArray<>(slots);
+        this.published = new AtomicLongArray(slots);
+    }
+
+    /** Agrega una línea. El llamador debe serializar las escrituras. */
+    long append(String line, GameLogger.Kind kind) {
+        long sequence = lastSequence.get() + 1;
+        int slot = (int) (sequence & mask);
+        published.set(slot, -1);
+        lines.set(slot, line);
+        kinds.set(slot, kind);
+        published.set(slot, sequence);
+        lastSequence.set(sequence);
+        return sequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence.get();
+    }
+
+    int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Agrega a {@code out} las líneas posteriores a {@code afterSequence}, en orden, y a
+     * {@code outKinds} (si no es null) la clase de cada una.
+     * @return la secuencia de la última línea entregada, para pasarla en la próxima llamada
+     */
+    long readAfter(long afterSequence, List<String> out, List<GameLogger.Kind> outKinds) {
+        long last = lastSequence.get();
+        long next = Math.max(afterSequence + 1, last - mask);
+        long delivered = afterSequence;
+        for (; next <= last; next++) {
+            int slot = (int) (next & mask);
+            String line = lines.get(slot);
+            GameLogger.Kind kind = kinds.get(slot);
+            // Si un escritor ya reutilizó la posición, la línea se perdió: se salta
+            if (published.get(slot) == next) {
+                out.add(line);
+                if (outKinds != null) outKinds.add(kind);
+            }
+            delivered = next;
+        }
+        return delivered;
+    }
+
+    /** Copia de todas las líneas que se conservan. */
+    List<String> snapshot() {
+        List<String> out = new ArrayList<>(mask + 1);
+        readAfter(0, out, null);
+        return out;
+    }
+}
@@ -0,0 +1,749 @@
+package entregable2;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice en disco de los eventos de los archivos {@code game_log_*.txt}, por jugador,
+ * casilla, tipo de evento y hora.
+ *
+ * Cada actualización lee solo los logs nuevos o modificados y escribe un segmento
+ * inmutable ({@code segmento_N.idx}) con los eventos ordenados por hora y una lista
+ * de posiciones por cada jugador, casilla y tipo. El catálogo ({@code catalogo.txt})
+ * guarda qué log está en qué segmento; si un log cambió se vuelve a indexar entero y
+ * sus eventos viejos quedan anulados. Las consultas mapean los segmentos y recorren
+ * la lista más corta de las claves pedidas.
+ *
+ * El texto no trae la casilla de las recolecciones, trampas y muertes: se deduce
+ * siguiendo lo que colocaron los robots a lo largo del recorrido del jugador. La hora
+ * de los logs de texto tiene resolución de segundos.
+ *
+ * Uso:
+ * <pre>
+ * java entregable2.LogIndex [--indice dir] actualizar [directorios o archivos...]
+ * java entregable2.LogIndex [--indice dir] buscar [jugador N] [tipo TIPO] [celda x,y] [desde "fecha hora"] [hasta "fecha hora"] [limite N]
+ * java entregable2.LogIndex [--indice dir] muertes-trampa [jugador N] [segundos S]
+ * </pre>
+ */
+public class LogIndex {
+    private static final int MAGIC = 0x4C494458; // "LIDX"
+    // 2: las claves de las listas de posiciones se guardan como long
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_SIZE = 48;
+    private static final String CATALOG = "catalogo.txt";
+    // Máximo de pasos de un movimiento (el dado)
+    private static final int MAX_STEPS = 6;
+
+    private static final int KEY_PLAYER = 0, KEY_CELL = 1, KEY_TYPE = 2;
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(".game_log_index");
+        int i = 0;
+        if (args.length > 1 && args[0].equals("--indice")) {
+            dir = Paths.get(args[1]);
+            i = 2;
+        }
+        String command = args.length > i ? args[i++] : "";
+        LogIndex index = new LogIndex(dir);
+        switch (command) {
+            case "actualizar": {
+                List<Path> inputs = new ArrayList<>();
+                for (; i < args.length; i++) inputs.add(Paths.get(args[i]));
+                if (inputs.isEmpty()) inputs.add(Paths.get("."));
+                long start = System.nanoTime();
+                int indexed = index.update(inputs);
+                System.out.printf("%d logs indexados en %.0f ms (%d eventos en total)%n",
+                    indexed, (System.nanoTime() - start) / 1e6, index.getEventCount());
+                break;
+            }
+            case "buscar": {
+                Query query = new Query();
+                int limit = 100;
+                for (; i + 1 < args.length; i += 2) {
+                    String value = args[i + 1];
+                    switch (args[i]) {
+                        case "jugador": query.player(Integer.parseInt(value)); break;
+                        case "tipo": query.type(EventType.valueOf(value)); break;
+                        case "celda": {
+                            String[] xy = value.split(",");
+                            query.cell(Integer.parseInt(xy[0].trim()), Integer.parseInt(xy[1].trim()));
+                            break;
+                        }
+                        case "desde": query.from(parseTime(value)); break;
+                        case "hasta": query.to(parseTime(value)); break;
+                        case "limite": limit = Integer.parseInt(value); break;
+                        default: System.out.println("Criterio desconocido: " + args[i]); return;
+                    }
+                }
+                long start = System.nanoTime();
+                List<Event> events = index.find(query);
+                double ms = (System.nanoTime() - start) / 1e6;
+                for (int n = 0; n < events.size() && n < limit; n++) System.out.println(events.get(n));
+                System.out.printf("%d eventos en %.2f ms%n", events.size(), ms);
+                break;
+            }
+            case "muertes-trampa": {
+                int player = -1;
+                long seconds = 2;
+                for (; i + 1 < args.length; i += 2) {
+                    if (args[i].equals("jugador")) player = Integer.parseInt(args[i + 1]);
+                    else if (args[i].equals("segundos")) seconds = Long.parseLong(args[i + 1]);
+                }
+                long start = System.nanoTime();
+                List<Event> events = index.trapDeaths(player, seconds * 1000L);
+                double ms = (System.nanoTime() - start) / 1e6;
+                for (Event event : events) {
+                    System.out.println(event + " (trampa colocada " + (event.time - event.related) / 1000 + " s antes)");
+                }
+                System.out.printf("%d muertes en %.2f ms%n", events.size(), ms);
+                break;
+            }
+            default:
+                System.out.println("Uso: java entregable2.LogIndex [--indice dir] actualizar|buscar|muertes-trampa ...");
+        }
+    }
+
+    /** Criterios de búsqueda; los que no se indican no filtran. */
+    public static final class Query {
+        int player = -1;
+        EventType type;
+        int x = -1, y = -1;
+        long from = Long.MIN_VALUE, to = Long.MAX_VALUE;
+
+        public Query player(int id) { this.player = id; return this; }
+        public Query type(EventType type) { this.type = type; return this; }
+        public Query cell(int x, int y) { this.x = x; this.y = y; return this; }
+        public Query from(long millis) { this.from = millis; return this; }
+        public Query to(long millis) { this.to = millis; return this; }
+    }
+
+    /** Evento encontrado, con el log y la partida de donde salió. */
+    public static final class Event {
+        final String file;
+        final int game;
+        final long time;
+        // Para TRAP_HIT, hora en que se colocó la trampa; -1 si no se sabe
+        final long related;
+        final EventType type;
+        final int entity, x, y, amount, extra, aux;
+
+        Event(String file, int game, long time, long related, EventType type,
+              int entity, int x, int y, int amount, int extra, int aux) {
+            this.file = file;
+            this.game = game;
+            this.time = time;
+            this.related = related;
+            this.type = type;
+            this.entity = entity;
+            this.x = x;
+            this.y = y;
+            this.amount = amount;
+            this.extra = extra;
+            this.aux = aux;
+        }
+
+        public String getFile() { return file; }
+        public int getGame() { return game; }
+        public long getTime() { return time; }
+        public EventType getType() { return type; }
+        public int getEntity() { return entity; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+
+        @Override
+        public String toString() {
+            String line = GameLogger.formatLine(time, type.format(entity, x, y, amount, extra, aux));
+            String cell = x >= 0 && type != EventType.PLAYER_MOVED ? " @(" + x + "," + y + ")" : "";
+            return file + " #" + game + " " + line + cell;
+        }
+    }
+
+    private final Path dir;
+    // Log indexado -> [id, segmento, tamaño, fecha de modificación]
+    private final Map<String, long[]> catalog = new LinkedHashMap<>();
+    private final Set<Integer> deleted = new HashSet<>();
+    private final Map<Integer, String> fileNames = new HashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private int nextFileId = 1;
+    private int nextSegment = 1;
+
+    public LogIndex(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        loadCatalog();
+        for (int n = 1; n < nextSegment; n++) {
+            Path file = segmentFile(n);
+            if (!Files.exists(file)) continue;
+            if (!isCurrentVersion(file)) {
+                // Índice de una versión anterior: se descarta y la próxima actualización lo rearma
+                discard();
+                break;
+            }
+            segments.add(new Segment(file));
+        }
+    }
+
+    private static boolean isCurrentVersion(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) return false;
+            }
+            return header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+        }
+    }
+
+    private void discard() throws IOException {
+        for (int n = 1; n < nextSegment; n++) {
+            Files.deleteIfExists(segmentFile(n));
+        }
+        Files.deleteIfExists(dir.resolve(CATALOG));
+        catalog.clear();
+        deleted.clear();
+        fileNames.clear();
+        segments.clear();
+        nextFileId = 1;
+        nextSegment = 1;
+    }
+
+    public long getEventCount() {
+        long count = 0;
+        for (Segment segment : segments) count += segment.count;
+        return count;
+    }
+
+    // ---------------------------------------------------------------- actualización
+
+    /**
+     * Indexa los logs nuevos o modificados.
+     * @return cantidad de logs leídos
+     */
+    public int update(List<Path> inputs) throws IOException {
+        SegmentBuilder builder = new SegmentBuilder();
+        List<String> newEntries = new ArrayList<>();
+        int indexed = 0;
+        for (List<Path> log : LogAnalyzer.findLogs(inputs)) {
+            String key = log.get(0).toAbsolutePath().normalize().toString();
+            long size = 0, modified = 0;
+            for (Path part : log) {
+                size += Files.size(part);
+                modified = Math.max(modified, Files.getLastModifiedTime(part).toMillis());
+            }
+            long[] known = catalog.get(key);
+            if (known != null && known[2] == size && known[3] == modified) continue;
+            if (known != null) {
+                deleted.add((int) known[0]);
+                newEntries.add("D " + known[0]);
+            }
+            int id = nextFileId++;
+            builder.addLog(id, log);
+            catalog.put(key, new long[] {id, nextSegment, size, modified});
+            fileNames.put(id, log.get(0).getFileName().toString());
+            newEntries.add("F " + id + " " + nextSegment + " " + size + " " + modified + " " + key);
+            indexed++;
+        }
+        if (indexed == 0) return 0;
+        Path file = segmentFile(nextSegment++);
+        builder.write(file);
+        segments.add(new Segment(file));
+        // El catálogo se escribe al final: si algo falla antes, el segmento queda ignorado
+        Path tmp = dir.resolve(CATALOG + ".tmp");
+        List<String> lines = Files.exists(dir.resolve(CATALOG))
+            ? new ArrayList<>(Files.readAllLines(dir.resolve(CATALOG), StandardCharsets.UTF_8))
+            : new ArrayList<>();
+        lines.addAll(newEntries);
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, dir.resolve(CATALOG), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return indexed;
+    }
+
+    private void loadCatalog() throws IOException {
+        Path file = dir.resolve(CATALOG);
+        if (!Files.exists(file)) return;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] parts = line.split(" ", 6);
+            if (parts[0].equals("D")) {
+                deleted.add(Integer.parseInt(parts[1]));
+            } else if (parts[0].equals("F") && parts.length == 6) {
+                int id = Integer.parseInt(parts[1]);
+                int segment = Integer.parseInt(parts[2]);
+                catalog.put(parts[5], new long[] {id, segment, Long.parseLong(parts[3]), Long.parseLong(parts[4])});
+                fileNames.put(id, Paths.get(parts[5]).getFileName().toString());
+                nextFileId = Math.max(nextFileId, id + 1);
+                nextSegment = Math.max(nextSegment, segment + 1);
+            }
+        }
+    }
+
+    private Path segmentFile(int n) {
+        return dir.resolve("segmento_" + n + ".idx");
+    }
+
+    /**
+     * Arma un segmento nuevo: lee los logs, deduce las casillas que el texto no trae
+     * y ordena por hora.
+     */
+    private static final class SegmentBuilder {
+        private int count;
+        private long[] times = new long[1024];
+        private long[] related = new long[1024];
+        private int[] files = new int[1024];
+        private int[] games = new int[1024];
+        private int[] fields = new int[1024 * 7]; // tipo, aux, entidad, x, y, cantidad, extra
+
+        // Estado de la partida que se está leyendo
+        private final Map<Long, Long> traps = new HashMap<>();
+        private final Map<Long, Long> lives = new HashMap<>();
+        private final Map<Long, Long> coins = new HashMap<>();
+        private final Map<Integer, int[]> positions = new HashMap<>();
+        private final Map<Integer, List<Integer>> pending = new HashMap<>();
+
+        void addLog(int fileId, List<Path> parts) throws IOException {
+            LogLineParser parser = new LogLineParser();
+            ZoneId zone = ZoneId.systemDefault();
+            String lastStamp = null;
+            long lastTime = 0;
+            int game = 0;
+            resetGame();
+            for (Path part : parts) {
+                for (String line : Files.readAllLines(part, StandardCharsets.UTF_8)) {
+                    int close = line.indexOf("] ");
+                    if (!line.startsWith("[") || close < 0) continue;
+                    String stamp = line.substring(1, close);
+                    if (!stamp.equals(lastStamp)) {
+                        try {
+                            lastTime = LocalDateTime.parse(stamp, GameLogger.TIMESTAMP_FORMAT).atZone(zone).toInstant().toEpochMilli();
+                        } catch (RuntimeException e) {
+                            continue;
+                        }
+                        lastStamp = stamp;
+                    }
+                    if (!parser.parse(line.substring(close + 2))) continue;
+                    if (parser.type == EventType.GAME_STARTING) {
+                        resolvePending();
+                        resetGame();
+                        game++;
+                    }
+                    add(fileId, game, lastTime, parser);
+                }
+            }
+            resolvePending();
+        }
+
+        /** Lo que quedó sin recorrido al terminar la partida va a la última posición conocida. */
+        private void resolvePending() {
+            for (Map.Entry<Integer, List<Integer>> e : pending.entrySet()) {
+                int[] at = positions.get(e.getKey());
+                resolveAlong(e.getValue(), at != null ? at : new int[0]);
+            }
+            pending.clear();
+        }
+
+        private void resetGame() {
+            traps.clear();
+            lives.clear();
+            coins.clear();
+            positions.clear();
+            pending.clear();
+        }
+
+        private void add(int fileId, int game, long time, LogLineParser e) {
+            int record = append(fileId, game, time, e.type, e.aux, e.entity, e.x, e.y, e.amount, e.extra);
+            switch (e.type) {
+                case PLAYER_POSITIONED:
+                    positions.put(e.entity, new int[] {e.x, e.y});
+                    break;
+                case TRAP_PLACED:
+                    traps.put(cell(e.x, e.y), time);
+                    break;
+                case LIFE_PLACED:
+                    lives.put(cell(e.x, e.y), time);
+                    break;
+                case COINS_PLACED:
+                    coins.put(cell(e.x, e.y), time);
+                    break;
+                case COINS_COLLECTED:
+                case LIFE_COLLECTED:
+                case TRAP_HIT:
+                case PLAYER_DIED:
+                    // La casilla se sabe cuando aparece el recorrido, o al morir
+                    pending.computeIfAbsent(e.entity, k -> new ArrayList<>()).add(record);
+                    if (e.type == EventType.PLAYER_DIED) resolveDeath(e.entity);
+                    break;
+                case PLAYER_MOVED:
+                    resolveMove(record, e);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /** Asigna casillas a lo pendiente del jugador siguiendo el recorrido. */
+        private void resolveMove(int record, LogLineParser e) {
+            int[] path;
+            if (e.extra < 0) {
+                // Formato anterior: solo el destino
+                path = new int[] {e.x, e.y};
+                int[] from = positions.get(e.entity);
+                if (from != null) {
+                    // Se supone en línea recta, como los movimientos actuales
+                    set(record, 3, from[0]);
+                    set(record, 4, from[1]);
+                    set(record, 6, Math.max(Math.abs(e.x - from[0]), Math.abs(e.y - from[1])));
+                    set(record, 1, EventType.direction(Integer.signum(e.x - from[0]), Integer.signum(e.y - from[1])));
+                } else {
+                    set(record, 6, 0);
+                }
+            } else {
+                int dx = e.aux / 3 - 1, dy = e.aux % 3 - 1;
+                path = new int[e.extra * 2];
+                for (int step = 1; step <= e.extra; step++) {
+                    path[(step - 1) * 2] = e.x + dx * step;
+                    path[(step - 1) * 2 + 1] = e.y + dy * step;
+                }
+            }
+            List<Integer> waiting = pending.remove(e.entity);
+            if (waiting != null) resolveAlong(waiting, path);
+            if (path.length > 0) {
+                positions.put(e.entity, new int[] {path[path.length - 2], path[path.length - 1]});
+            } else if (e.extra >= 0) {
+                positions.put(e.entity, new int[] {e.x, e.y});
+            }
+        }
+
+        /**
+         * Al morir no se registra el recorrido: se buscan trampas en línea recta desde la
+         * última posición conocida, en las 8 direcciones y hasta el máximo del dado.
+         */
+        private void resolveDeath(int player) {
+            List<Integer> waiting = pending.remove(player);
+            int[] from = positions.get(player);
+            if (waiting == null) return;
+            if (from == null) {
+                resolveAlong(waiting, new int[0]);
+                return;
+            }
+            int[] best = null;
+            int bestSteps = Integer.MAX_VALUE;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (dx == 0 && dy == 0) continue;
+                    for (int step = 1; step <= MAX_STEPS; step++) {
+                        int cx = from[0] + dx * step, cy = from[1] + dy * step;
+                        if (traps.containsKey(cell(cx, cy)) && step < bestSteps) {
+                            int[] path = new int[step * 2];
+                            for (int k = 1; k <= step; k++) {
+                                path[(k - 1) * 2] = from[0] + dx * k;
+                                path[(k - 1) * 2 + 1] = from[1] + dy * k;
+                            }
+                            best = path;
+                            bestSteps = step;
+                            break;
+                        }
+                    }
+                }
+            }
+            resolveAlong(waiting, best != null ? best : new int[] {from[0], from[1]});
+        }
+
+        private void resolveAlong(List<Integer> waiting, int[] path) {
+            int step = 0;
+            int lastX = path.length > 0 ? path[path.length - 2] : -1;
+            int lastY = path.length > 0 ? path[path.length - 1] : -1;
+            for (int record : waiting) {
+                EventType type = EventType.fromCode(fields[record * 7]);
+                Map<Long, Long> placed = type == EventType.TRAP_HIT ? traps
+                    : type == EventType.LIFE_COLLECTED ? lives
+                    : type == EventType.COINS_COLLECTED ? coins : null;
+                int foundX = lastX, foundY = lastY;
+                if (placed != null) {
+                    for (int s = step; s * 2 < path.length; s++) {
+                        long key = cell(path[s * 2], path[s * 2 + 1]);
+                        Long placedAt = placed.get(key);
+                        if (placedAt != null) {
+                            foundX = path[s * 2];
+                            foundY = path[s * 2 + 1];
+                            step = s;
+                            if (type == EventType.TRAP_HIT) {
+                                related[record] = placedAt;
+                            } else {
+                                placed.remove(key);
+                            }
+                            break;
+                        }
+                    }
+                } else {
+                    // Muerte: donde quedó la última trampa
+                    foundX = step * 2 < path.length ? path[step * 2] : lastX;
+                    foundY = step * 2 < path.length ? path[step * 2 + 1] : lastY;
+                }
+                set(record, 3, foundX);
+                set(record, 4, foundY);
+            }
+        }
+
+        private int append(int fileId, int game, long time, EventType type, int aux,
+                           int entity, int x, int y, int amount, int extra) {
+            if (count == times.length) {
+                int size = count * 2;
+                times = Arrays.copyOf(times, size);
+                related = Arrays.copyOf(related, size);
+                files = Arrays.copyOf(files, size);
+                games = Arrays.copyOf(games, size);
+                fields = Arrays.copyOf(fields, size * 7);
+            }
+            int r = count++;
+            times[r] = time;
+            related[r] = -1;
+            files[r] = fileId;
+            games[r] = game;
+            int[] values = {type.getCode(), aux, entity, x, y, amount, extra};
+            System.arraycopy(values, 0, fields, r * 7, 7);
+            return r;
+        }
+
+        private void set(int record, int field, int value) {
+            fields[record * 7 + field] = value;
+        }
+
+        void write(Path file) throws IOException {
+            // Orden por hora; a igual hora se conserva el orden del log
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(times[a], times[b]));
+
+            List<Map<Long, List<Integer>>> postings = newPostings();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(count);
+                for (int pos = 0; pos < count; pos++) {
+                    int r = order[pos];
+                    int f = r * 7;
+                    out.writeLong(times[r]);
+                    out.writeLong(related[r]);
+                    out.writeInt(files[r]);
+                    out.writeInt(games[r]);
+                    out.writeShort(fields[f]);
+                    out.writeShort(fields[f + 1]);
+                    for (int k = 2; k < 7; k++) out.writeInt(fields[f + k]);
+                    addPostings(postings, pos, fields, f);
+                }
+                for (Map<Long, List<Integer>> kind : postings) {
+                    out.writeInt(kind.size());
+                    for (Map.Entry<Long, List<Integer>> e : kind.entrySet()) {
+                        out.writeLong(e.getKey());
+                        out.writeInt(e.getValue().size());
+                        for (int pos : e.getValue()) out.writeInt(pos);
+                    }
+                }
+            }
+        }
+
+        /** Un mapa por clave, indexado por KEY_PLAYER, KEY_CELL y KEY_TYPE. */
+        private static List<Map<Long, List<Integer>>> newPostings() {
+            List<Map<Long, List<Integer>>> postings = new ArrayList<>();
+            for (int key = 0; key <= KEY_TYPE; key++) postings.add(new HashMap<>());
+            return postings;
+        }
+
+        private static void addPostings(List<Map<Long, List<Integer>>> postings, int pos, int[] fields, int f) {
+            EventType type = EventType.fromCode(fields[f]);
+            int entity = fields[f + 2], x = fields[f + 3], y = fields[f + 4];
+            postings.get(KEY_TYPE).computeIfAbsent((long) fields[f], k -> new ArrayList<>()).add(pos);
+            if (entity > 0) {
+                postings.get(KEY_PLAYER).computeIfAbsent((long) entity, k -> new ArrayList<>()).add(pos);
+            }
+            if (type == EventType.PLAYER_MOVED) {
+                // Cada casilla por la que pasó, sin la de partida
+                int steps = fields[f + 6], direction = fields[f + 1];
+                int dx = direction / 3 - 1, dy = direction % 3 - 1;
+                for (int step = 1; step <= steps; step++) {
+                    postings.get(KEY_CELL).computeIfAbsent(cell(x + dx * step, y + dy * step), k -> new ArrayList<>()).add(pos);
+                }
+            } else if (x >= 0 && y >= 0) {
+                postings.get(KEY_CELL).computeIfAbsent(cell(x, y), k -> new ArrayList<>()).add(pos);
+            }
+        }
+
+    }
+
+    private static long cell(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    // ---------------------------------------------------------------- consultas
+
+    /** Segmento mapeado en memoria, con sus listas de posiciones cargadas. */
+    private static final class Segment {
+        final MappedByteBuffer buf;
+        final int count;
+        final List<Map<Long, int[]>> postings = new ArrayList<>();
+
+        Segment(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+                throw new IOException("Segmento de índice inválido: " + file);
+            }
+            count = buf.getInt(8);
+            ByteBuffer in = buf.duplicate();
+            in.position(HEADER_SIZE + count * RECORD_SIZE);
+            for (int kind = 0; kind < 3; kind++) {
+                int keys = in.getInt();
+                Map<Long, int[]> map = new HashMap<>(keys * 2);
+                for (int k = 0; k < keys; k++) {
+                    long key = in.getLong();
+                    int[] positions = new int[in.getInt()];
+                    for (int p = 0; p < positions.length; p++) positions[p] = in.getInt();
+                    map.put(key, positions);
+                }
+                postings.add(map);
+            }
+        }
+
+        long time(int pos) { return buf.getLong(HEADER_SIZE + pos * RECORD_SIZE); }
+        long related(int pos) { return buf.getLong(HEADER_SIZE + pos * RECORD_SIZE + 8); }
+        int file(int pos) { return buf.getInt(HEADER_SIZE + pos * RECORD_SIZE + 16); }
+        int game(int pos) { return buf.getInt(HEADER_SIZE + pos * RECORD_SIZE + 20); }
+        int type(int pos) { return buf.getShort(HEADER_SIZE + pos * RECORD_SIZE + 24); }
+        int aux(int pos) { return buf.getShort(HEADER_SIZE + pos * RECORD_SIZE + 26); }
+        int field(int pos, int k) { return buf.getInt(HEADER_SIZE + pos * RECORD_SIZE + 28 + k * 4); }
+
+        /** Primera posición con hora >= {@code time}. */
+        int lowerBound(long time) {
+            int lo = 0, hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (time(mid) < time) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    public List<Event> find(Query query) {
+        List<Event> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            int[] candidates = candidates(segment, query);
+            if (candidates == null) {
+                int from = segment.lowerBound(query.from);
+                for (int pos = from; pos < segment.count && segment.time(pos) <= query.to; pos++) {
+                    if (matches(segment, pos, query)) result.add(event(segment, pos));
+                }
+            } else {
+                // Las posiciones están ordenadas por hora: se saltea hasta el inicio del rango
+                int start = lowerBound(candidates, segment, query.from);
+                for (int c = start; c < candidates.length; c++) {
+                    int pos = candidates[c];
+                    if (segment.time(pos) > query.to) break;
+                    if (matches(segment, pos, query)) result.add(event(segment, pos));
+                }
+            }
+        }
+        result.sort((a, b) -> Long.compare(a.time, b.time));
+        return result;
+    }
+
+    /**
+     * Muertes por trampa: el jugador quedó sin vidas en una trampa colocada menos de
+     * {@code maxMillis} antes.
+     * @param player jugador, o -1 para todos
+     */
+    public List<Event> trapDeaths(int player, long maxMillis) {
+        Query query = new Query().type(EventType.TRAP_HIT);
+        if (player > 0) query.player(player);
+        List<Event> deaths = new ArrayList<>();
+        for (Event hit : find(query)) {
+            if (hit.extra <= 0 && hit.related >= 0 && hit.time - hit.related < maxMillis) {
+                deaths.add(hit);
+            }
+        }
+        return deaths;
+    }
+
+    /**
+     * La lista más corta entre las claves pedidas, vacía si alguna clave no aparece en
+     * el segmento, o null si no se pidió ninguna.
+     */
+    private static int[] candidates(Segment segment, Query query) {
+        List<int[]> lists = new ArrayList<>(3);
+        if (query.player > 0) lists.add(segment.postings.get(KEY_PLAYER).get((long) query.player));
+        if (query.type != null) lists.add(segment.postings.get(KEY_TYPE).get((long) query.type.getCode()));
+        if (query.x >= 0) lists.add(segment.postings.get(KEY_CELL).get(cell(query.x, query.y)));
+        int[] best = null;
+        for (int[] list : lists) {
+            if (list == null) return new int[0];
+            if (best == null || list.length < best.length) best = list;
+        }
+        return best;
+    }
+
+    private static int lowerBound(int[] positions, Segment segment, long time) {
+        int lo = 0, hi = positions.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (segment.time(positions[mid]) < time) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private boolean matches(Segment s, int pos, Query query) {
+        if (deleted.contains(s.file(pos))) return false;
+        long time = s.time(pos);
+        if (time < query.from || time > query.to) return false;
+        int type = s.type(pos);
+        if (query.type != null && type != query.type.getCode()) return false;
+        if (query.player > 0 && s.field(pos, 0) != query.player) return false;
+        if (query.x >= 0) {
+            int x = s.field(pos, 1), y = s.field(pos, 2);
+            if (type == EventType.PLAYER_MOVED.getCode()) {
+                int steps = s.field(pos, 4), direction = s.aux(pos);
+                int dx = direction / 3 - 1, dy = direction % 3 - 1;
+                boolean touches = false;
+                for (int step = 1; step <= steps && !touches; step++) {
+                    touches = x + dx * step == query.x && y + dy * step == query.y;
+                }
+                if (!touches) return false;
+            } else if (x != query.x || y != query.y) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Event event(Segment s, int pos) {
+        return new Event(fileNames.getOrDefault(s.file(pos), "?"), s.game(pos), s.time(pos), s.related(pos),
+            EventType.fromCode(s.type(pos)), s.field(pos, 0), s.field(pos, 1), s.field(pos, 2),
+            s.field(pos, 3), s.field(pos, 4), s.aux(pos));
+    }
+
+    private static long parseTime(String text) {
+        try {
+            return LocalDateTime.parse(text, GameLogger.TIMESTAMP_FORMAT).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Fecha inválida (yyyy-MM-dd HH:mm:ss): " + text);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package entregable2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Operación inversa de {@link EventType#format}: reconoce el mensaje de una línea de
+ * log y recupera el tipo y los campos del evento. Los patrones se arman formateando
+ * cada tipo con valores marcadores, así siguen al texto si el formato cambia.
+ *
+ * También reconoce el formato anterior de movimiento ({@code Jugador N se movió a (x,y)
+ * con dado D}): lo devuelve como {@link EventType#PLAYER_MOVED} con {@code (x, y)} en
+ * el destino y {@code extra} en -1 porque el origen no figura en la línea.
+ *
+ * Los campos que el texto no incluye quedan en -1. No es thread-safe: el resultado se
+ * lee de los campos después de cada {@link #parse}.
+ *
+ * Los textos fijos de cada tipo ({@link #literal}) y de los formatos anteriores quedan
+ * disponibles para los lectores que reconocen líneas sin expresiones regulares, como
+ * {@link LogAnalyzer}.
+ */
+final class LogLineParser {
+    private static final int ENTITY = 910001, X = 910002, Y = 910003, AMOUNT = 910004, EXTRA = 910005;
+    private static final Pattern MARKER = Pattern.compile("91000[1-5]");
+    private static final Pattern CELL = Pattern.compile("\\((-?\\d+),(-?\\d+)\\)");
+    /** Formatos anteriores: {@code Jugador N se movió a (x,y) con dado D} y {@code Jugador N no pudo moverse a (x,y) ...}. */
+    static final String LEGACY_MOVED_TO = " se movió a (";
+    static final String LEGACY_BLOCKED = " no pudo moverse";
+    private static final Pattern LEGACY_MOVE = Pattern.compile(
+        "Jugador (\\d+)" + Pattern.quote(LEGACY_MOVED_TO) + "(-?\\d+),(-?\\d+)\\) con dado (\\d+)");
+
+    private static final class Shape {
+        final EventType type;
+        final String prefix;
+        final Pattern pattern;
+        final int[] fields;
+        final int pathGroup;
+        final int statusGroup;
+        final List<String> literals;
+
+        Shape(EventType type, String prefix, Pattern pattern, int[] fields, int pathGroup, int statusGroup,
+              List<String> literals) {
+            this.type = type;
+            this.prefix = prefix;
+            this.pattern = pattern;
+            this.fields = fields;
+            this.pathGroup = pathGroup;
+            this.statusGroup = statusGroup;
+            this.literals = literals;
+        }
+    }
+
+    private static final List<Shape> SHAPES = new ArrayList<>();
+    static {
+        for (EventType type : EventType.values()) {
+            String text = type.format(ENTITY, X, Y, AMOUNT, type == EventType.PLAYER_MOVED ? 0 : EXTRA, 1);
+            String path = type == EventType.PLAYER_MOVED ? "(" + X + "," + Y + ")" : null;
+            String status = type == EventType.PLAYER_RESULT ? "VIVO" : null;
+            StringBuilder regex = new StringBuilder();
+            List<Integer> fields = new ArrayList<>();
+            List<String> literals = new ArrayList<>();
+            int group = 0, pathGroup = -1, statusGroup = -1;
+            int pos = 0;
+            String prefix = null;
+            while (pos < text.length()) {
+                if (path != null && text.startsWith(path, pos)) {
+                    if (prefix == null) prefix = text.substring(0, pos);
+                    regex.append("(\\(.*\\))");
+                    pathGroup = ++group;
+                    pos += path.length();
+                    continue;
+                }
+                if (status != null && text.startsWith(status, pos)) {
+                    if (prefix == null) prefix = text.substring(0, pos);
+                    regex.append("(VIVO|MUERTO)");
+                    statusGroup = ++group;
+                    pos += status.length();
+                    continue;
+                }
+                Matcher m = MARKER.matcher(text);
+                if (m.find(pos) && m.start() == pos) {
+                    if (prefix == null) prefix = text.substring(0, pos);
+                    regex.append("(-?\\d+)");
+                    fields.add(Integer.parseInt(m.group()));
+                    group++;
+                    pos = m.end();
+                    continue;
+                }
+                int next = text.length();
+                if (m.find(pos)) next = m.start();
+                if (path != null && text.indexOf(path, pos) >= 0) next = Math.min(next, text.indexOf(path, pos));
+                if (status != null && text.indexOf(status, pos) >= 0) next = Math.min(next, text.indexOf(status, pos));
+                literals.add(text.substring(pos, next));
+                regex.append(Pattern.quote(literals.get(literals.size() - 1)));
+                pos = next;
+            }
+            int[] order = new int[fields.size()];
+            for (int i = 0; i < order.length; i++) order[i] = fields.get(i);
+            SHAPES.add(new Shape(type, prefix != null ? prefix : text, Pattern.compile(regex.toString()),
+                order, pathGroup, statusGroup, literals));
+        }
+    }
+
+    /**
+     * Texto fijo número {@code index} del mensaje de {@code type}, contando los tramos
+     * entre campos: para {@code "Jugador " + id + " ha muerto!"} el 0 es {@code "Jugador "}
+     * y el 1 es {@code " ha muerto!"}. Un mensaje sin campos es un único tramo.
+     */
+    static String literal(EventType type, int index) {
+        return SHAPES.get(type.ordinal()).literals.get(index);
+    }
+
+    EventType type;
+    int entity, x, y, amount, extra, aux;
+
+    /**
+     * Reconoce el mensaje (sin la marca de tiempo).
+     * @return false si no corresponde a ningún evento, como los mensajes libres
+     */
+    boolean parse(String message) {
+        for (Shape shape : SHAPES) {
+            if (!message.startsWith(shape.prefix)) continue;
+            Matcher m = shape.pattern.matcher(message);
+            if (!m.matches()) continue;
+            type = shape.type;
+            entity = x = y = amount = extra = -1;
+            aux = 0;
+            int group = 0;
+            for (int field : shape.fields) {
+                group++;
+                while (group == shape.pathGroup || group == shape.statusGroup) group++;
+                set(field, Integer.parseInt(m.group(group)));
+            }
+            if (shape.statusGroup > 0) {
+                aux = "VIVO".equals(m.group(shape.statusGroup)) ? 1 : 0;
+            }
+            if (shape.pathGroup > 0) {
+                parsePath(m.group(shape.pathGroup));
+            }
+            return true;
+        }
+        Matcher legacy = LEGACY_MOVE.matcher(message);
+        if (legacy.matches()) {
+            type = EventType.PLAYER_MOVED;
+            entity = Integer.parseInt(legacy.group(1));
+            x = Integer.parseInt(legacy.group(2));
+            y = Integer.parseInt(legacy.group(3));
+            amount = Integer.parseInt(legacy.group(4));
+            extra = -1;
+            aux = EventType.direction(0, 0);
+            return true;
+        }
+        return false;
+    }
+
+    private void set(int field, int value) {
+        switch (field) {
+            case ENTITY: entity = value; break;
+            case X: x = value; break;
+            case Y: y = value; break;
+            case AMOUNT: amount = value; break;
+            case EXTRA: extra = value; break;
+            default: break;
+        }
+    }
+
+    /** {@code (x0,y0) -> (x1,y1) -> ...}: inicio, pasos y dirección. */
+    private void parsePath(String path) {
+        Matcher cell = CELL.matcher(path);
+        int steps = -1;
+        int firstX = 0, firstY = 0, secondX = 0, secondY = 0;
+        while (cell.find()) {
+            steps++;
+            if (steps == 0) {
+                firstX = Integer.parseInt(cell.group(1));
+                firstY = Integer.parseInt(cell.group(2));
+            } else if (steps == 1) {
+                secondX = Integer.parseInt(cell.group(1));
+                secondY = Integer.parseInt(cell.group(2));
+            }
+        }
+        x = firstX;
+        y = firstY;
+        extra = Math.max(0, steps);
+        aux = steps > 0 ? EventType.direction(secondX - firstX, secondY - firstY) : EventType.direction(0, 0);
+    }
+}
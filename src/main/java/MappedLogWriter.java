@@ -0,0 +1,105 @@
+package entregable2;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archivo de log que se agrega sobre segmentos mapeados en memoria: escribir una
+ * línea es copiarla al segmento, sin llamadas al sistema. Cuando el segmento se
+ * llena se recorta al tamaño escrito y se mapea uno nuevo en el archivo siguiente
+ * ({@code game_log_X.txt}, {@code game_log_X.1.txt}, {@code game_log_X.2.txt}, ...).
+ *
+ * El sistema operativo baja las páginas al disco cuando quiere; {@link #force()}
+ * espera a que lo escrito hasta ese momento esté en disco.
+ *
+ * No es thread-safe: lo usa {@link GameLogger} con su lock tomado.
+ */
+final class MappedLogWriter {
+    private final Path baseFile;
+    private final int segmentSize;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    // Posición en el archivo donde empieza el segmento mapeado
+    private long segmentStart;
+
+    MappedLogWriter(Path file, int segmentSize) throws IOException {
+        this.baseFile = file;
+        this.segmentSize = Math.max(4096, segmentSize);
+        openSegment(this.segmentSize);
+    }
+
+    /** Copia la línea al segmento, seguida de un salto de línea. */
+    void append(String line) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            encoder.reset();
+            int mark = segment.position();
+            CoderResult result = encoder.encode(chars, segment, true);
+            if (!result.isOverflow() && segment.hasRemaining()) {
+                segment.put((byte) '\n');
+                return;
+            }
+            // No entró la línea completa: se descarta lo copiado y se pasa a otro segmento
+            segment.position(mark);
+            chars.rewind();
+            openSegment(Math.max(segmentSize, line.length() * 3 + 1));
+        }
+    }
+
+    /** Barrera de durabilidad: vuelve cuando lo escrito está en disco. */
+    void force() {
+        segment.force();
+    }
+
+    int getSegmentCount() {
+        return segmentIndex;
+    }
+
+    void close() throws IOException {
+        if (channel == null) return;
+        closeSegment();
+    }
+
+    private void openSegment(int size) throws IOException {
+        if (channel != null) {
+            closeSegment();
+        }
+        Path file = segmentFile(segmentIndex++);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        // Como FileWriter en modo append: lo nuevo va después de lo que ya tenía el archivo
+        segmentStart = channel.size();
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, size);
+    }
+
+    private void closeSegment() throws IOException {
+        segment.force();
+        // Sacar el relleno de ceros que quedó sin usar al final del mapeo
+        channel.truncate(segmentStart + segment.position());
+        channel.close();
+        channel = null;
+        segment = null;
+    }
+
+    private Path segmentFile(int index) {
+        if (index == 0) return baseFile;
+        String name = baseFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String segmentName = dot > 0
+            ? name.substring(0, dot) + "." + index + name.substring(dot)
+            : name + "." + index;
+        return baseFile.resolveSibling(segmentName);
+    }
+}
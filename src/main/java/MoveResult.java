@@ -0,0 +1,47 @@
+package entregable2;
+
+/**
+ * Resultado de {@link GameBoard#commitMove}: el recorrido confirmado de una tirada de
+ * dado y lo que pasó en cada paso. Permite registrar los eventos después de liberar
+ * el tablero, en el mismo orden en que ocurrieron.
+ */
+public final class MoveResult {
+    private final int startX;
+    private final int startY;
+    private final int dx;
+    private final int dy;
+    private final int stepsTaken;
+    private final int[] coinsPerStep;
+    private final boolean[] lifeSteps;
+    private final boolean[] trapSteps;
+    private final int livesAfter;
+    private final boolean dead;
+
+    MoveResult(int startX, int startY, int dx, int dy, int stepsTaken, int[] coinsPerStep,
+               boolean[] lifeSteps, boolean[] trapSteps, int livesAfter, boolean dead) {
+        this.startX = startX;
+        this.startY = startY;
+        this.dx = dx;
+        this.dy = dy;
+        this.stepsTaken = stepsTaken;
+        this.coinsPerStep = coinsPerStep;
+        this.lifeSteps = lifeSteps;
+        this.trapSteps = trapSteps;
+        this.livesAfter = livesAfter;
+        this.dead = dead;
+    }
+
+    public int getStartX() { return startX; }
+    public int getStartY() { return startY; }
+    public int getEndX() { return startX + dx * stepsTaken; }
+    public int getEndY() { return startY + dy * stepsTaken; }
+    public int getStepsTaken() { return stepsTaken; }
+    /** Casilla alcanzada en el paso {@code step} (desde 0). */
+    public int getStepX(int step) { return startX + dx * (step + 1); }
+    public int getStepY(int step) { return startY + dy * (step + 1); }
+    public int getCoinsAt(int step) { return coinsPerStep[step]; }
+    public boolean collectedLifeAt(int step) { return lifeSteps[step]; }
+    public boolean hitTrapAt(int step) { return trapSteps[step]; }
+    public int getLivesAfter() { return livesAfter; }
+    public boolean isDead() { return dead; }
+}
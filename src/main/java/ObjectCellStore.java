@@ -0,0 +1,81 @@
+package entregable2;
+
+/**
+ * Almacenamiento original: un objeto {@code Cell} por casilla dentro de una
+ * matriz {@code Cell[][]}. Se conserva para comparar consumo de memoria.
+ */
+class ObjectCellStore implements CellStore {
+    private final int size;
+    private final Cell[][] board;
+
+    ObjectCellStore(int size) {
+        this.size = size;
+        this.board = new Cell[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                board[i][j] = new Cell();
+            }
+        }
+    }
+
+    @Override
+    public long get(int index) {
+        Cell cell = board[index / size][index % size];
+        long state = CellState.withOccupant(CellState.EMPTY, cell.occupant);
+        state = CellState.withCoins(state, cell.coins);
+        state = CellState.withLife(state, cell.hasLife);
+        return CellState.withTrap(state, cell.hasTrap);
+    }
+
+    @Override
+    public void set(int index, long state) {
+        Cell cell = board[index / size][index % size];
+        cell.occupant = CellState.occupant(state);
+        cell.coins = CellState.coins(state);
+        cell.hasLife = CellState.hasLife(state);
+        cell.hasTrap = CellState.hasTrap(state);
+    }
+
+    @Override
+    public long nonEmptyCount() {
+        // Recorre todo el almacenamiento: el tablero lleva su propio índice de libres
+        long count = 0;
+        for (int idx = 0; idx < size * size; idx++) {
+            if (!CellState.isEmpty(get(idx))) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public CellStore copy() {
+        // La copia usa el formato compacto: es de solo lectura y más barata de recorrer
+        PackedCellStore copy = new PackedCellStore(size);
+        int total = size * size;
+        for (int idx = 0; idx < total; idx++) {
+            copy.set(idx, get(idx));
+        }
+        return copy;
+    }
+
+    @Override
+    public long footprintBytes() {
+        return estimateFootprint(size);
+    }
+
+    static long estimateFootprint(long size) {
+        // Objeto Cell: cabecera + ocupante + monedas + dos booleanos
+        long cell = CellStore.align(CellStore.OBJECT_HEADER + CellStore.REFERENCE + 4 + 1 + 1);
+        long row = CellStore.align(CellStore.ARRAY_HEADER + CellStore.REFERENCE * size);
+        return row + size * row + size * size * cell;
+    }
+
+    /**
+     * Clase interna que representa una casilla del tablero
+     */
+    private static class Cell {
+        private int occupant;
+        private int coins;
+        private boolean hasLife;
+        private boolean hasTrap;
+    }
+}
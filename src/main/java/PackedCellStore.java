@@ -0,0 +1,61 @@
+package entregable2;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Almacenamiento compacto: un {@code long[]} plano con una casilla por posición.
+ * Se accede con un VarHandle (acquire/release y CAS) para poder usarlo sin locks.
+ */
+class PackedCellStore implements CellStore {
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] cells;
+
+    PackedCellStore(int size) {
+        this.cells = new long[size * size];
+    }
+
+    private PackedCellStore(long[] cells) {
+        this.cells = cells;
+    }
+
+    @Override
+    public long get(int index) {
+        return (long) CELLS.getAcquire(cells, index);
+    }
+
+    @Override
+    public void set(int index, long state) {
+        CELLS.setRelease(cells, index, state);
+    }
+
+    @Override
+    public boolean compareAndSet(int index, long expected, long updated) {
+        return CELLS.compareAndSet(cells, index, expected, updated);
+    }
+
+    @Override
+    public long nonEmptyCount() {
+        // Recorre todo el almacenamiento: el tablero lleva su propio índice de libres
+        long count = 0;
+        for (int idx = 0; idx < cells.length; idx++) {
+            if (!CellState.isEmpty(get(idx))) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public CellStore copy() {
+        return new PackedCellStore(cells.clone());
+    }
+
+    @Override
+    public long footprintBytes() {
+        return estimateFootprint(cells.length);
+    }
+
+    static long estimateFootprint(long cellCount) {
+        return CellStore.align(CellStore.ARRAY_HEADER + 8L * cellCount);
+    }
+}
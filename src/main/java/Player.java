@@ -2,31 +2,36 @@
 package entregable2;
 import java.util.Random;
 
-public class Player implements Runnable {
+public class Player implements Runnable, SimulationScheduler.Entity {
     private final int id;
     private int x, y;
     private int lives;
     private int coins;
     private final GameBoard board;
+    private final GameLogger logger;
     private final Random random;
     private volatile boolean isAlive;
     private volatile boolean gameRunning;
     private static final int Z_MIN = 1000;
     private static final int Z_MAX = 3000;
     private final Runnable uiUpdateCallback;
+    // Último movimiento, que se registra cuando termina de recorrer sus pasos
+    private boolean moveLogPending;
+    private int moveStartX, moveStartY, moveDice, moveSteps, moveDirection;
 
-    public Player(int id, GameBoard board, int vidasIniciales) {
-        this(id, board, vidasIniciales, null);
+    public Player(int id, GameContext context, int vidasIniciales) {
+        this(id, context, vidasIniciales, null);
     }
 
-    public Player(int id, GameBoard board, int vidasIniciales, Runnable uiUpdateCallback) {
+    public Player(int id, GameContext context, int vidasIniciales, Runnable uiUpdateCallback) {
         this.id = id;
-        this.board = board;
+        this.board = context.getBoard();
+        this.logger = context.getLogger();
         this.lives = vidasIniciales;
         this.coins = 0;
         this.isAlive = true;
         this.gameRunning = true;
-        this.random = new Random();
+        this.random = context.newRandom();
         this.uiUpdateCallback = uiUpdateCallback;
         this.x = random.nextInt(board.getSize());
         this.y = random.nextInt(board.getSize());
@@ -34,23 +39,42 @@ public class Player implements Runnable {
 
     @Override
     public void run() {
-        GameLogger logger = GameLogger.getInstance();
         try {
-            while (gameRunning && isAlive) {
-                if (board.isPositionValid(x, y)) {
-                    makeMove();
-                }
-                int waitTime = Z_MIN + random.nextInt(Z_MAX - Z_MIN + 1);
+            long waitTime;
+            while ((waitTime = step()) >= 0) {
                 Thread.sleep(waitTime);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            logger.log("Jugador " + id + " interrumpido");
+            logger.logEvent(EventType.PLAYER_INTERRUPTED, id, x, y, 0, 0);
         }
     }
 
-    private void makeMove() {
-        GameLogger logger = GameLogger.getInstance();
+    /**
+     * Avanza el turno del jugador sin dormir: tira el dado y confirma el movimiento,
+     * y en la llamada siguiente registra el recorrido ya terminado. Lo usa tanto
+     * {@link #run()} como el {@link SimulationScheduler}.
+     * @return milisegundos hasta la próxima llamada, o -1 si el jugador terminó
+     */
+    @Override
+    public long step() {
+        if (moveLogPending) {
+            logger.logEvent(EventType.PLAYER_MOVED, id, moveStartX, moveStartY, moveDice, moveSteps, moveDirection);
+            moveLogPending = false;
+            return Z_MIN + random.nextInt(Z_MAX - Z_MIN + 1);
+        }
+        if (!gameRunning || !isAlive) return -1;
+        if (!board.isPositionValid(x, y)) {
+            return Z_MIN + random.nextInt(Z_MAX - Z_MIN + 1);
+        }
+        long moveTime = makeMove();
+        return isAlive ? moveTime : -1;
+    }
+
+    /**
+     * @return tiempo que tarda en recorrer los pasos, 200 ms por paso
+     */
+    private long makeMove() {
         int dice = random.nextInt(6) + 1;
         // Elegir una dirección aleatoria: 0=izq, 1=der, 2=arriba, 3=abajo, 4=diag izq-arriba, 5=diag der-abajo, 6=diag izq-abajo, 7=diag der-arriba
         int dir = random.nextInt(8);
@@ -65,77 +89,61 @@ public class Player implements Runnable {
             case 6: dx = -1; dy = 1; break; // diag izq-abajo
             case 7: dx = 1; dy = -1; break; // diag der-arriba
         }
-        int currX = x;
-        int currY = y;
-        boolean muerto = false;
-        StringBuilder recorrido = new StringBuilder();
-        recorrido.append("(" + currX + "," + currY + ")");
-        for (int paso = 0; paso < dice; paso++) {
-            int nextX = currX + dx;
-            int nextY = currY + dy;
-            // Limitar a los bordes
-            if (nextX < 0 || nextX >= board.getSize() || nextY < 0 || nextY >= board.getSize()) break;
-            // No puede pasar por casillas ocupadas
-            if (!board.isCellFree(nextX, nextY)) break;
-            board.getWriteLock().lock();
-            try {
-                board.freeCell(currX, currY);
-                board.occupyCell(nextX, nextY, this);
-                this.x = currX = nextX;
-                this.y = currY = nextY;
-                int collectedCoins = board.collectCoins(currX, currY);
-                if (collectedCoins > 0) {
-                    coins += collectedCoins;
-                    logger.log("Jugador " + id + " recolectó " + collectedCoins + " monedas! Total: " + coins);
-                }
-                if (board.collectLife(currX, currY)) {
-                    lives++;
-                    logger.log("Jugador " + id + " recolectó una vida! Total: " + lives);
-                }
-                if (board.hasTrap(currX, currY)) {
-                    lives--;
-                    logger.log("Jugador " + id + " cayó en una trampa! Perdió una vida. Vidas restantes: " + lives);
-                    if (lives <= 0) {
-                        isAlive = false;
-                        logger.log("Jugador " + id + " ha muerto!");
-                        muerto = true;
-                    }
-                }
-            } finally {
-                board.getWriteLock().unlock();
+        // Todo el recorrido se confirma en el tablero de una vez; los logs se escriben después
+        MoveResult result = board.commitMove(this, x, y, dx, dy, dice, lives);
+        for (int paso = 0; paso < result.getStepsTaken(); paso++) {
+            int stepX = result.getStepX(paso);
+            int stepY = result.getStepY(paso);
+            int collectedCoins = result.getCoinsAt(paso);
+            if (collectedCoins > 0) {
+                coins += collectedCoins;
+                logger.logEvent(EventType.COINS_COLLECTED, id, stepX, stepY, collectedCoins, coins);
             }
-            recorrido.append(" -> (" + currX + "," + currY + ")");
-            if (uiUpdateCallback != null) {
-                javax.swing.SwingUtilities.invokeLater(uiUpdateCallback);
+            if (result.collectedLifeAt(paso)) {
+                lives++;
+                logger.logEvent(EventType.LIFE_COLLECTED, id, stepX, stepY, 1, lives);
             }
-            try {
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+            if (result.hitTrapAt(paso)) {
+                lives--;
+                logger.logEvent(EventType.TRAP_HIT, id, stepX, stepY, 1, lives);
             }
-            if (muerto) return;
         }
-        logger.log("Jugador " + id + " se movió con dado " + dice + ": " + recorrido.toString());
+        this.x = result.getEndX();
+        this.y = result.getEndY();
+        this.lives = result.getLivesAfter();
+        if (result.isDead()) {
+            isAlive = false;
+            logger.logEvent(EventType.PLAYER_DIED, id, x, y, 0, 0);
+        }
+        if (uiUpdateCallback != null) {
+            javax.swing.SwingUtilities.invokeLater(uiUpdateCallback);
+        }
+        if (result.isDead()) return 0;
+        moveLogPending = true;
+        moveStartX = result.getStartX();
+        moveStartY = result.getStartY();
+        moveDice = dice;
+        moveSteps = result.getStepsTaken();
+        moveDirection = EventType.direction(dx, dy);
+        return 200L * result.getStepsTaken();
     }
 
     private void applyCellActions() {
-        GameLogger logger = GameLogger.getInstance();
         int collectedCoins = board.collectCoins(x, y);
         if (collectedCoins > 0) {
             coins += collectedCoins;
-            logger.log("Jugador " + id + " recolectó " + collectedCoins + " monedas! Total: " + coins);
+            logger.logEvent(EventType.COINS_COLLECTED, id, x, y, collectedCoins, coins);
         }
         if (board.collectLife(x, y)) {
             lives++;
-            logger.log("Jugador " + id + " recolectó una vida! Total: " + lives);
+            logger.logEvent(EventType.LIFE_COLLECTED, id, x, y, 1, lives);
         }
         if (board.hasTrap(x, y)) {
             lives--;
-            logger.log("Jugador " + id + " cayó en una trampa! Perdió una vida. Vidas restantes: " + lives);
+            logger.logEvent(EventType.TRAP_HIT, id, x, y, 1, lives);
             if (lives <= 0) {
                 isAlive = false;
-                logger.log("Jugador " + id + " ha muerto!");
+                logger.logEvent(EventType.PLAYER_DIED, id, x, y, 0, 0);
             }
         }
     }
@@ -0,0 +1,101 @@
+package entregable2;
+
+import java.util.PriorityQueue;
+
+/**
+ * Planificador de eventos discretos con reloj virtual. Guarda en una cola de
+ * prioridad el instante simulado en que cada entidad debe volver a actuar y las
+ * despierta en orden, adelantando el reloj sin esperar tiempo real. Una partida
+ * completa corre así tan rápido como permita la CPU.
+ *
+ * Todas las entidades se ejecutan en el hilo que llama a {@link #run()}. No es
+ * thread-safe: solo se programa antes de {@code run()} o desde las propias entidades.
+ */
+public final class SimulationScheduler {
+    /**
+     * Entidad que avanza por pasos en lugar de dormir el hilo.
+     */
+    public interface Entity {
+        /**
+         * Ejecuta la próxima acción de la entidad.
+         * @return milisegundos simulados hasta la siguiente acción, o un valor negativo si terminó
+         */
+        long step();
+    }
+
+    private static final class Event {
+        final long time;
+        // Desempata eventos del mismo instante en el orden en que se programaron
+        final long order;
+        final Entity entity;
+
+        Event(long time, long order, Entity entity) {
+            this.time = time;
+            this.order = order;
+            this.entity = entity;
+        }
+    }
+
+    private final PriorityQueue<Event> queue = new PriorityQueue<>((a, b) -> {
+        int cmp = Long.compare(a.time, b.time);
+        return cmp != 0 ? cmp : Long.compare(a.order, b.order);
+    });
+    private volatile long now;
+    private long nextOrder;
+    private long processedEvents;
+    private volatile boolean stopped;
+    private volatile Thread runner;
+
+    /** Programa una entidad para dentro de {@code delayMillis} ms simulados. */
+    public void schedule(Entity entity, long delayMillis) {
+        queue.add(new Event(now + Math.max(0, delayMillis), nextOrder++, entity));
+    }
+
+    /** Programa una acción única para dentro de {@code delayMillis} ms simulados. */
+    public void scheduleOnce(Runnable action, long delayMillis) {
+        schedule(() -> {
+            action.run();
+            return -1;
+        }, delayMillis);
+    }
+
+    /**
+     * Procesa eventos hasta que la cola quede vacía o se llame a {@link #stop()}.
+     */
+    public void run() {
+        runner = Thread.currentThread();
+        try {
+            while (!stopped) {
+                Event event = queue.poll();
+                if (event == null) break;
+                now = event.time;
+                long delay = event.entity.step();
+                processedEvents++;
+                if (delay >= 0) {
+                    queue.add(new Event(now + delay, nextOrder++, event.entity));
+                }
+            }
+        } finally {
+            runner = null;
+        }
+    }
+
+    /** Detiene la simulación después del evento en curso. */
+    public void stop() {
+        stopped = true;
+    }
+
+    /** Indica si el hilo actual es el que está ejecutando la simulación. */
+    public boolean isSimulationThread() {
+        return runner == Thread.currentThread();
+    }
+
+    /** Tiempo simulado transcurrido, en milisegundos. */
+    public long now() {
+        return now;
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+}
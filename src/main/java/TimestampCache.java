@@ -0,0 +1,60 @@
+package entregable2;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Prefijo {@code [yyyy-MM-dd HH:mm:ss] } de las líneas de log, formateado como mucho
+ * una vez por segundo. El último prefijo se publica en un campo volatile junto con su
+ * segundo: los lectores no toman locks y solo el primero que ve un segundo nuevo
+ * vuelve a formatear (si dos lo hacen a la vez, producen el mismo texto).
+ *
+ * La hora sale de {@link #currentTimeMillis()}, que avanza con {@link System#nanoTime()}
+ * a partir de la hora del sistema al arrancar: nunca retrocede aunque se ajuste el
+ * reloj, así las líneas quedan en orden.
+ */
+final class TimestampCache {
+    private static final long START_MILLIS = System.currentTimeMillis();
+    private static final long START_NANOS = System.nanoTime();
+
+    private static final class Entry {
+        final long second;
+        final String prefix;
+
+        Entry(long second, String prefix) {
+            this.second = second;
+            this.prefix = prefix;
+        }
+    }
+
+    private final DateTimeFormatter formatter;
+    private final ZoneId zone;
+    private volatile Entry last = new Entry(Long.MIN_VALUE, "");
+
+    TimestampCache(DateTimeFormatter formatter, ZoneId zone) {
+        this.formatter = formatter;
+        this.zone = zone;
+    }
+
+    /** Hora en milisegundos desde epoch que nunca retrocede. */
+    static long currentTimeMillis() {
+        return START_MILLIS + (System.nanoTime() - START_NANOS) / 1_000_000L;
+    }
+
+    /** Prefijo de la línea para la hora dada, con el espacio final incluido. */
+    String prefix(long millis) {
+        long second = Math.floorDiv(millis, 1000L);
+        Entry entry = last;
+        if (entry.second == second) {
+            return entry.prefix;
+        }
+        String prefix = "[" + LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone).format(formatter) + "] ";
+        // Las horas pueden llegar apenas desordenadas entre hilos: no volver a un segundo anterior
+        if (second > entry.second) {
+            last = new Entry(second, prefix);
+        }
+        return prefix;
+    }
+}
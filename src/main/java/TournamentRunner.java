@@ -0,0 +1,195 @@
+package entregable2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ejecuta por lotes muchas partidas independientes, sin ventana ni consola, para
+ * ajustar los parámetros de dificultad. Cada partida corre en modo SIMULATED sobre
+ * un {@link ForkJoinPool}; las partidas se reparten dividiendo el rango a la mitad,
+ * así los hilos libres roban trabajo de los ocupados. Cada partida tiene su propio
+ * {@link GameContext} con un logger silencioso y la semilla igual a su número, por lo
+ * que un torneo se puede repetir.
+ *
+ * Uso: {@code java entregable2.TournamentRunner [partidas] [hilos] [jugadores] [duración]}
+ * <p>
+ * Por defecto juega 1000 partidas de cada dificultad con el tablero de {@link GameSimulator}.
+ */
+public class TournamentRunner {
+    // Cantidad de muestras de la curva de supervivencia a lo largo de la partida
+    private static final int SURVIVAL_SAMPLES = 10;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int duration = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+
+        List<GameSettings> settings = new ArrayList<>();
+        for (int dificultad = 1; dificultad <= 3; dificultad++) {
+            settings.add(GameSettings.forDifficulty(dificultad, 10, players, duration));
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (GameSettings s : settings) {
+                long start = System.nanoTime();
+                Stats stats = run(pool, s, games);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.println(s);
+                System.out.print(stats.report());
+                System.out.printf("  %.0f partidas/s (%d hilos)%n%n", games / seconds, parallelism);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Juega {@code games} partidas con los mismos parámetros y agrega sus resultados.
+     */
+    public static Stats run(ForkJoinPool pool, GameSettings settings, int games) {
+        return pool.invoke(new Batch(settings, 0, games));
+    }
+
+    private static final class Batch extends RecursiveTask<Stats> {
+        private final GameSettings settings;
+        private final int from;
+        private final int to;
+
+        Batch(GameSettings settings, int from, int to) {
+            this.settings = settings;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= 1) {
+                Stats stats = new Stats();
+                if (to > from) stats.add(settings, from);
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            Batch left = new Batch(settings, from, mid);
+            left.fork();
+            Stats right = new Batch(settings, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Resultados agregados de un conjunto de partidas.
+     */
+    public static final class Stats {
+        private int games;
+        private int gamesWithWinner;
+        private long players;
+        private long survivors;
+        private long winnerCoins;
+        // Suma de jugadores vivos en cada muestra; la última es el final de la partida
+        private final long[] aliveAtSample = new long[SURVIVAL_SAMPLES + 1];
+        private int[] coins = new int[16];
+        private int coinCount;
+
+        void add(GameSettings settings, long seed) {
+            GameContext context = GameContext.simulated(settings.createBoard(), GameLogger.silent(), null, seed);
+            ConcurrentGame game = new ConcurrentGame(settings, context);
+            game.setConsoleDisplay(false);
+            int[] sample = {0};
+            long period = Math.max(1, settings.getGameDuration() * 1000L / SURVIVAL_SAMPLES);
+            game.scheduleSimulationProbe(period, () -> {
+                if (sample[0] < SURVIVAL_SAMPLES) {
+                    aliveAtSample[sample[0]++] += game.getAlivePlayersCount();
+                }
+            });
+            game.runSimulation();
+            // Las muestras que no llegaron a tomarse valen lo mismo que el final
+            int alive = game.getAlivePlayersCount();
+            for (int i = sample[0]; i <= SURVIVAL_SAMPLES; i++) {
+                aliveAtSample[i] += alive;
+            }
+
+            games++;
+            Player winner = null;
+            for (Player p : game.getPlayers()) {
+                players++;
+                if (p.isAlive()) {
+                    survivors++;
+                    if (winner == null || p.getCoins() > winner.getCoins()) winner = p;
+                }
+                addCoins(p.getCoins());
+            }
+            if (winner != null) {
+                gamesWithWinner++;
+                winnerCoins += winner.getCoins();
+            }
+        }
+
+        private void addCoins(int value) {
+            if (coinCount == coins.length) coins = Arrays.copyOf(coins, coinCount * 2);
+            coins[coinCount++] = value;
+        }
+
+        Stats merge(Stats other) {
+            games += other.games;
+            gamesWithWinner += other.gamesWithWinner;
+            players += other.players;
+            survivors += other.survivors;
+            winnerCoins += other.winnerCoins;
+            for (int i = 0; i < aliveAtSample.length; i++) {
+                aliveAtSample[i] += other.aliveAtSample[i];
+            }
+            for (int i = 0; i < other.coinCount; i++) {
+                addCoins(other.coins[i]);
+            }
+            return this;
+        }
+
+        public int getGames() { return games; }
+
+        /** Fracción de partidas que terminaron con algún jugador vivo (hay ganador). */
+        public double getWinRate() {
+            return games == 0 ? 0 : (double) gamesWithWinner / games;
+        }
+
+        /** Fracción de jugadores que sobrevivieron hasta el final. */
+        public double getSurvivalRate() {
+            return players == 0 ? 0 : (double) survivors / players;
+        }
+
+        /**
+         * Fracción de jugadores vivos en cada décimo de la partida; el último valor es el final.
+         */
+        public double[] getSurvivalCurve() {
+            double[] curve = new double[aliveAtSample.length];
+            for (int i = 0; i < curve.length; i++) {
+                curve[i] = players == 0 ? 0 : (double) aliveAtSample[i] / players;
+            }
+            return curve;
+        }
+
+        /** Percentil de monedas finales por jugador, con {@code p} entre 0 y 100. */
+        public int getCoinsPercentile(int p) {
+            if (coinCount == 0) return 0;
+            int[] sorted = Arrays.copyOf(coins, coinCount);
+            Arrays.sort(sorted);
+            return sorted[Math.min(coinCount - 1, coinCount * p / 100)];
+        }
+
+        public String report() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("  Partidas: %d, con ganador: %.1f%%, monedas promedio del ganador: %.1f%n",
+                games, 100 * getWinRate(), gamesWithWinner == 0 ? 0.0 : (double) winnerCoins / gamesWithWinner));
+            sb.append(String.format("  Supervivencia: %.1f%%, curva:", 100 * getSurvivalRate()));
+            for (double v : getSurvivalCurve()) {
+                sb.append(String.format(" %.2f", v));
+            }
+            sb.append(String.format("%n  Monedas por jugador p10/p50/p90/máx: %d/%d/%d/%d%n",
+                getCoinsPercentile(10), getCoinsPercentile(50), getCoinsPercentile(90), getCoinsPercentile(100)));
+            return sb.toString();
+        }
+    }
+}